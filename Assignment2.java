@@ -346,8 +346,8 @@ public class Assignment2 extends Application {
             // Check if they actually selected a file
             if (file != null) {
                try {
-                  tdb.exportDatabase(file); // Pass file to TennisDatabase to handle the export
-                  labelUserMsg.setText("Database Successfully Exported.\r\nLocation: " + file.getPath());
+                  TennisDatabaseExportStats stats = tdb.exportDatabase(file); // Pass file to TennisDatabase to handle the export
+                  labelUserMsg.setText("Database Successfully Exported (" + stats.getRecordsWritten() + " records).\r\nLocation: " + file.getPath());
                } catch (TennisDatabaseRuntimeException ex) {
                   labelUserMsg.setText("Error! Database Export Failed.");
                }
@@ -698,4 +698,4 @@ public class Assignment2 extends Application {
       }
    }
 }
-// © 2018 Jeremy Maxey-Vesperman
\ No newline at end of file
+// © 2018 Jeremy Maxey-Vesperman
@@ -4,7 +4,7 @@
  *    Package:    TennisDatabase
  *    Purpose:    Provides a container for holding match dates. Provides functions/methods to compare and print match dates.
  *    Developer:  Jeremy Maxey-Vesperman
- *    Modified:   05/04/2018
+ *    Modified:   10/18/2026
  */
 
 package TennisDatabase;
@@ -57,6 +57,9 @@ class MatchDate implements MatchDateInterface {
    public int getDay() { return this.day; }
    public String getDateStr () { return (String.format("%1$02d/%2$02d/%3$04d", this.getMonth(), this.getDay(), this.getYear())); }
    
+   // Desc.:   Packs a date into a YYYYMMDD int. Packed dates sort in date order
+   static int packDate( int year, int month, int day ) { return (year * 10000) + (month * 100) + day; }
+   
    /* Functions / Methods */
    
    // Desc.:   Determines sorting order of this MatchDate compared to an input MatchDate.
@@ -80,4 +83,4 @@ class MatchDate implements MatchDateInterface {
       return EQUAL;
    }
 }
-// © 2018 Jeremy Maxey-Vesperman
\ No newline at end of file
+// © 2018 Jeremy Maxey-Vesperman
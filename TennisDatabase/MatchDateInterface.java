@@ -23,4 +23,4 @@ interface MatchDateInterface extends Comparable<MatchDate> {
    public int getDay();
    public String getDateStr();
 }
-// © 2018 Jeremy Maxey-Vesperman
\ No newline at end of file
+// © 2018 Jeremy Maxey-Vesperman
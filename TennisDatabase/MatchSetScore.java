@@ -2,34 +2,183 @@
  *    Class Name: MatchSetScore
  *    Interface:  N/A
  *    Package:    TennisDatabase
- *    Purpose:    Provides a container for storing tennis match set wins for each player.
- *                Provides function to determine winner
+ *    Purpose:    Parses a match score ("6-4,3-6,7-5") in a single pass and holds the result: games of each set,
+ *                sets won by each player and the problems found in malformed sets. Parsing does not allocate,
+ *                so one instance can be reused for every score. Provides function to determine winner
  *    Developer:  Jeremy Maxey-Vesperman
- *    Modified:   05/04/2018
+ *    Modified:   10/18/2026
  */
- 
+
 package TennisDatabase;
 
 public class MatchSetScore {
-   private int p1 = 0, p2 = 0; // Player games won
-   
+   /* Set Status Constants */
+   public static final int SET_OK = 0,           // Set has a winner
+                           SET_TOO_SHORT = 1,    // Fewer than 3 characters
+                           SET_NO_DELIMITER = 2, // No "-" between the games of the players
+                           SET_NOT_A_NUMBER = 3, // Games of one or both players are not an integer
+                           SET_TIED = 4;         // Both players won the same number of games
+   private static final int MAX_GAMES = 255, MAX_SETS = 127; // Limits of the compact (byte) encoding
+
+   private int p1 = 0, p2 = 0; // Sets won by each player
+   private int sets = 0; // Number of sets parsed
+   private int[] games = new int[16]; // P1 and P2 games of each set. Zero for malformed sets
+   private byte[] status = new byte[8]; // SET_* constant of each set
+   private int malformed = 0; // Number of sets that are not SET_OK
+   private String score; // Last parsed score (only read to build error messages)
+   private int tooShortAt = -1; // Start of the remaining score if it is too short to hold another set, else -1
+   private boolean compact; // Score only holds plain game counts that encode to bytes and decode to the same string
+
    /* Constructors*/
    public MatchSetScore () { }
-   
+
    /* Setters */
    public void incP1 () { p1++; }
    public void incP2 () { p2++; }
-   
+
    /* Getters */
    public int getP1Wins() { return this.p1; }
    public int getP2Wins() { return this.p2; }
-   public int getWinner () 
+   public int getSetCount() { return this.sets; }
+   public int getP1Games( int set ) { return this.games[2 * set]; }
+   public int getP2Games( int set ) { return this.games[(2 * set) + 1]; }
+   public int getSetStatus( int set ) { return this.status[set]; }
+   public int getMalformedSetCount() { return this.malformed; }
+   public int getWinner ()
       throws TennisDatabaseRuntimeException {
+      // Score can't be used at all if it ends with a set that is too short. Throw exception
+      if (this.tooShortAt >= 0) {
+         throw new TennisDatabaseRuntimeException("Error parsing set! Match string is too short to be valid: " + this.score.substring(this.tooShortAt));
+      }
+
       // Winner can't be determined if games won are equal. Throw exception
       if (this.getP1Wins() == this.getP2Wins()) {
          throw new TennisDatabaseRuntimeException("Error determining set winner! Games won for each player are equal.");
       }
-      
+
       return (p1 > p2) ? 1 : 2; } // Return winning player
+
+   /* Functions / Methods */
+   // Desc.:   Parses a score, replacing the previous result. Each set should be delimited by ",". Games of the
+   //          players in each set should be delimited by "-". Malformed sets are recorded (getSetStatus) and
+   //          don't count towards the winner
+   // Input:   Score string
+   // Output:  This MatchSetScore (reference)
+   public MatchSetScore parse( String score ) {
+      this.p1 = 0;
+      this.p2 = 0;
+      this.sets = 0;
+      this.malformed = 0;
+      this.score = score;
+      this.tooShortAt = -1;
+      this.compact = true;
+
+      int len = score.length();
+      int start = 0;
+      while (true) {
+         // Minimum possible length of the rest of the score is 3
+         if (len - start < 3) {
+            this.tooShortAt = start;
+            this.compact = false;
+            return this;
+         }
+
+         int end = start;
+         while (end < len && score.charAt(end) != ',') { end++; }
+         this.parseSet(score, start, end);
+         if (end == len) { return this; }
+         start = end + 1;
+      }
+   }
+
+   // Desc.:   Parses one set and records its games, status and winner
+   // Input:   Score string, start (inclusive) and end (exclusive) of the set
+   private void parseSet( String score, int start, int end ) {
+      int set = this.sets++;
+      if (set == this.status.length) {
+         this.status = java.util.Arrays.copyOf(this.status, set * 2);
+         this.games = java.util.Arrays.copyOf(this.games, set * 4);
+      }
+      this.games[2 * set] = 0;
+      this.games[(2 * set) + 1] = 0;
+
+      int setStatus = SET_OK;
+      if (end - start < 3) {
+         setStatus = SET_TOO_SHORT;
+      } else {
+         int delim = start;
+         while (delim < end && score.charAt(delim) != '-') { delim++; }
+         if (delim == end) {
+            setStatus = SET_NO_DELIMITER;
+         } else {
+            long p1Games = parseGames(score, start, delim);
+            long p2Games = parseGames(score, delim + 1, end);
+            if (p1Games == Long.MIN_VALUE || p2Games == Long.MIN_VALUE) {
+               setStatus = SET_NOT_A_NUMBER;
+            } else {
+               this.games[2 * set] = (int) p1Games;
+               this.games[(2 * set) + 1] = (int) p2Games;
+               if (this.compact) { this.compact = isCompact(score, start, delim) && isCompact(score, delim + 1, end); }
+               if (p1Games == p2Games) {
+                  setStatus = SET_TIED;
+               } else if (p1Games > p2Games) {
+                  this.incP1();
+               } else {
+                  this.incP2();
+               }
+            }
+         }
+      }
+
+      this.status[set] = (byte) setStatus;
+      if (setStatus != SET_OK) { this.malformed++; }
+      if (setStatus != SET_OK && setStatus != SET_TIED) { this.compact = false; } // Tied sets still encode
+   }
+
+   // Desc.:   Parses the games of one player the way Integer.parseInt does (optional sign, int range)
+   // Input:   Score string, start (inclusive) and end (exclusive) of the number
+   // Output:  Parsed value, or Long.MIN_VALUE if it is not an int
+   private static long parseGames( String score, int start, int end ) {
+      boolean negative = false;
+      if (start < end && (score.charAt(start) == '-' || score.charAt(start) == '+')) {
+         negative = (score.charAt(start) == '-');
+         start++;
+      }
+      if (start == end) { return Long.MIN_VALUE; } // No digits
+
+      long value = 0;
+      for (int i = start; i < end; i++) {
+         int digit = Character.digit(score.charAt(i), 10);
+         if (digit < 0) { return Long.MIN_VALUE; }
+         value = (value * 10) + digit;
+         if (value > (long) Integer.MAX_VALUE + 1) { return Long.MIN_VALUE; }
+      }
+      if (negative) { return -value; }
+      return (value > Integer.MAX_VALUE) ? Long.MIN_VALUE : value;
+   }
+
+   // Desc.:   Checks that a number is plain ASCII digits, without sign or leading zero, and fits a byte
+   // Input:   Score string, start (inclusive) and end (exclusive) of the number
+   private static boolean isCompact( String score, int start, int end ) {
+      if (score.charAt(start) == '0' && end - start > 1) { return false; } // Leading zero wouldn't round trip
+      int value = 0;
+      for (int i = start; i < end; i++) {
+         char c = score.charAt(i);
+         if (c < '0' || c > '9') { return false; }
+         value = (value * 10) + (c - '0');
+         if (value > MAX_GAMES) { return false; }
+      }
+      return true;
+   }
+
+   // Desc.:   Encodes the parsed score as its number of sets followed by the two game counts of each set
+   // Output:  Encoded bytes, or null if decoding them would not give back exactly the parsed string
+   public byte[] toGames() {
+      if (!this.compact || this.sets > MAX_SETS) { return null; }
+      byte[] encoded = new byte[1 + (2 * this.sets)];
+      encoded[0] = (byte) this.sets;
+      for (int i = 0; i < 2 * this.sets; i++) { encoded[i + 1] = (byte) this.games[i]; }
+      return encoded;
+   }
 }
-// © 2018 Jeremy Maxey-Vesperman
\ No newline at end of file
+// © 2018 Jeremy Maxey-Vesperman
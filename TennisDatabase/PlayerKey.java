@@ -0,0 +1,49 @@
+/*
+ *    Class Name: PlayerKey
+ *    Interface:  N/A
+ *    Package:    TennisDatabase
+ *    Purpose:    Canonical (uppercase) player id. Ids are normalized once where they enter the database and the
+ *                containers and indexes work on keys only, so lookups never normalize or rehash the id again.
+ *    Developer:  agent
+ *    Modified:   10/18/2026
+ */
+
+package TennisDatabase;
+
+final class PlayerKey implements Comparable<PlayerKey> {
+   private final String id; // Uppercase id
+   private final int hash;  // Cached hash code of the id
+
+   // Constructor - wraps an id that is already uppercase
+   private PlayerKey( String canonicalId ) {
+      this.id = canonicalId;
+      this.hash = canonicalId.hashCode();
+   }
+
+   // Desc.:   Creates the key of a player id
+   // Input:   Player id (any case)
+   // Output:  PlayerKey of the id
+   public static PlayerKey of( String id ) { return new PlayerKey(id.toUpperCase()); }
+
+   /* Getters */
+   public String getId() { return this.id; }
+
+   /* Functions / Methods */
+   public int hashCode() { return this.hash; }
+
+   public boolean equals( Object o ) {
+      if (this == o) { return true; }
+      if (!(o instanceof PlayerKey)) { return false; }
+      PlayerKey k = (PlayerKey) o;
+      return (this.hash == k.hash) && this.id.equals(k.id); // Different hashes rule out most keys without comparing ids
+   }
+
+   // Desc.:   Orders keys by id, like the player tree
+   public int compareTo( PlayerKey k ) {
+      if (this == k) { return 0; }
+      return this.id.compareTo(k.id);
+   }
+
+   public String toString() { return this.id; }
+}
+// © 2026 agent
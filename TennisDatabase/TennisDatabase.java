@@ -4,7 +4,7 @@
  *    Package:    TennisDatabase
  *    Purpose:    Database that contains tennis players, matches, and provides relevant functions for interfacing with the data 
  *    Developer:  Jeremy Maxey-Vesperman
- *    Modified:   06/08/2018
+ *    Modified:   10/18/2026
  */
  
 package TennisDatabase;
@@ -13,176 +13,402 @@ import javafx.collections.ObservableList;
 import javafx.collections.FXCollections;
 
 import java.io.*;
-import java.util.Scanner;
+import java.util.Iterator;
 
 public class TennisDatabase implements TennisDatabaseInterface {
+   // Journal sync policies (see openJournal)
+   public static final int JOURNAL_SYNC_ALWAYS = 0,   // Every mutation is forced to disk before it returns
+                           JOURNAL_SYNC_INTERVAL = 1, // Mutations are group-committed every sync interval
+                           JOURNAL_SYNC_NONE = 2;     // Mutations are written out when the buffer fills; forced on flush/close
+   
+   // Containers build their indexes lazily on reads, so every method using them (reads too) holds this database's lock
    TennisPlayersContainer tpc = new TennisPlayersContainer(); // Binary Search Tree that holds tennis player nodes
-   TennisMatchesContainer tmc = new TennisMatchesContainer(); // JCF LinkedList that holds all tennis matches
+   TennisMatchesContainer tmc = new TennisMatchesContainer(); // Skip list that holds all tennis matches
+   TennisDatabaseSnapshotView view; // Memory-mapped snapshot answering all lookups in read-only mode. Null otherwise
+   TennisDatabaseJournal journal; // Records every mutation when the database is journaled. Null otherwise
+   TennisStringDictionary tournamentNames = new TennisStringDictionary("Tournaments"); // Shared tournament names. Replaced with the containers
+   TennisStringDictionary countryNames = new TennisStringDictionary("Countries"); // Shared countries. Replaced with the containers
    
    // Constructor - Default
    public TennisDatabase() {}
    
-   // Desc.:   Method to load database from text file
+   // Desc.:   Method to load database from text file. All entries are parsed first and the containers are
+   //          then bulk-built from the sorted players and matches.
    // Input:   File object
    // Output:  Status info regarding entry parsing. Throws exception if file does not exist
    public void loadFromFile (File file) throws FileNotFoundException {
+      this.loadFromFile(file, 1);
+   }
+   
+   // Desc.:   Method to load database from text file using multiple threads. The file is split at line
+   //          boundaries and the chunks are parsed in parallel. The loaded database (and the status info)
+   //          is identical to a sequential load.
+   // Input:   File object and the number of threads to use (e.g. Runtime.getRuntime().availableProcessors())
+   // Output:  Status info regarding entry parsing. Throws exception if file does not exist
+   public synchronized void loadFromFile (File file, int parallelism) throws FileNotFoundException {
       this.tpc = new TennisPlayersContainer();
       this.tmc = new TennisMatchesContainer();
+      this.view = null;
+      this.newDictionaries();
       
-      Scanner scanFile = new Scanner(file); // Create scanner object for file
-      scanFile.useDelimiter("\r\n");
+      TennisDatabaseLoader loader = new TennisDatabaseLoader();
+      loader.parse(file, parallelism); // Parse all entries
+      loader.build(this.tpc, this.tmc, this.tournamentNames, this.countryNames); // Build containers in one pass
       
-      while (scanFile.hasNext()) { // While there is another line to parse
-         String line = scanFile.next(); // Get next line in file
-         Scanner scanLine = new Scanner(line); // Create scanner object for current line
-         scanLine.useDelimiter("/"); // Set scanner delimiter to '/'
-         
-         String lineTypeToken = "";
-         if (scanLine.hasNext()) { lineTypeToken = scanLine.next().toUpperCase(); } // Get line type token if a token to scan exists
+      if (this.journal != null) { this.compactJournal(); } // Loaded contents can't be journaled. Snapshot them
+   }
+   
+   // Desc.:   Method to export database to text file. Players are written in preorder so reimporting rebuilds
+   //          the same tree, followed by all matches. Lines are streamed through a single large buffer.
+   // Input:   File object. An existing file is overwritten
+   // Output:  Number of bytes and records written. Throws exception if the file can't be written
+   public synchronized TennisDatabaseExportStats exportDatabase(File file) throws TennisDatabaseRuntimeException {
+      TennisPlayersContainer srcTpc = this.tpc;
+      TennisMatchesContainer srcTmc = this.tmc;
+      if (this.view != null) { // Read-only mode. Build the containers to export from the snapshot
+         srcTpc = new TennisPlayersContainer();
+         srcTmc = new TennisMatchesContainer();
+         this.restoreView(srcTpc, srcTmc);
+      }
+      
+      try (FileOutputStream out = new FileOutputStream(file)) { // Truncates an existing file
+         TennisDatabaseWriter writer = new TennisDatabaseWriter(out);
          
-         String [] fields = new String[5];
-         for (int i = 0; scanLine.hasNext() && i < 5; i++) { // Parse all fields on line and store into an array of arguments
-            fields[i] = scanLine.next();
-         }
+         srcTpc.treeToFile(writer);
+         srcTmc.matchesToFile(writer);
+         writer.flush();
          
-         if (lineTypeToken.equals("PLAYER")) { // If this is a player line
-            try {
-               this.insertPlayer(fields[0], fields[1], fields[2], Integer.parseInt(fields[3]), fields[4]); // Add player to player container
-            } catch (TennisDatabaseRuntimeException e) { // Player id already exists... Automatically update entry with new player data
-               tpc.updatePlayer(fields[0], fields[1], fields[2], Integer.parseInt(fields[3]), fields[4]);
-            } catch (NumberFormatException e) { // Birth year entry is not a number. Do not create player.
-               System.out.println("Error parsing player entry. Birth year entry is NAN: " + fields[3] + "\r\nSkipping player entry.");
-            } catch (NullPointerException e) { // Entry does not contain enough fields to create player
-               System.out.println("Error parsing player entry. Invalid number of fields provided.\r\nSkipping player entry.");
-            }
-         } else if (lineTypeToken.equals("MATCH")) { // If this is a match line
-            try {
-               this.insertMatch( fields[0], fields[1], Integer.parseInt(fields[2].substring(0,4)), Integer.parseInt(fields[2].substring(4,6)),
-                                 Integer.parseInt(fields[2].substring(6,8)), fields[3], fields[4]);
-            } catch (TennisDatabaseRuntimeException e) {
-               System.out.println(e.getMessage());
-            } catch (NumberFormatException e) { // Date entry is not a number. Do not enter match.
-               System.out.println("Error parsing match entry. Match date entry is NAN: " + fields[2] + "\r\nSkipping match entry.");
-            } catch (IndexOutOfBoundsException e) { // Date field is too short to contain valid formatted date. Do not enter match.
-               System.out.println("Error parsing match entry. Match date entry is too short to be valid: " + fields[2] + "\r\nSkipping match entry.");
-            } catch (NullPointerException e) { // Entry does not contain enough fields to create match.
-               System.out.println("Error parsing match entry. Invalid number of fields provided.\r\nSkipping match entry.");
-            }
+         return new TennisDatabaseExportStats(writer.getBytesWritten(), writer.getRecordsWritten());
+      } catch (IOException ex) {
+         throw new TennisDatabaseRuntimeException("Error exporting database! " + ex.getMessage());
+      }
+   }
+   
+   // Desc.:   Method to save database to a binary snapshot file. Loading a snapshot is much faster than
+   //          loading a text file as nothing needs to be parsed or sorted.
+   // Input:   File object. An existing file is overwritten
+   // Output:  Number of bytes and records written. Throws exception if the file can't be written
+   public synchronized TennisDatabaseExportStats saveSnapshot(File file) throws TennisDatabaseRuntimeException {
+      if (this.view != null) { // Read-only mode. Build the containers to save from the snapshot
+         TennisPlayersContainer srcTpc = new TennisPlayersContainer();
+         TennisMatchesContainer srcTmc = new TennisMatchesContainer();
+         this.restoreView(srcTpc, srcTmc);
+         return TennisDatabaseSnapshot.write(srcTpc, srcTmc, file);
+      }
+      return TennisDatabaseSnapshot.write(this.tpc, this.tmc, file);
+   }
+   
+   // Desc.:   Method to load database from a binary snapshot file written by saveSnapshot. The current
+   //          database is only replaced if the whole snapshot could be loaded.
+   // Input:   File object
+   // Output:  Throws exception if file does not exist, or if it can't be read or is not a valid snapshot
+   public synchronized void loadSnapshot(File file) throws FileNotFoundException, TennisDatabaseException {
+      TennisDatabaseSnapshot snapshot = TennisDatabaseSnapshot.load(file); // Read, not mapped. A compaction may replace the file
+      TennisPlayersContainer newTpc = new TennisPlayersContainer();
+      TennisMatchesContainer newTmc = new TennisMatchesContainer();
+      TennisStringDictionary newTournaments = new TennisStringDictionary("Tournaments");
+      TennisStringDictionary newCountries = new TennisStringDictionary("Countries");
+      snapshot.restore(newTpc, newTmc, newTournaments, newCountries);
+      
+      this.tpc = newTpc;
+      this.tmc = newTmc;
+      this.view = null;
+      this.tournamentNames = newTournaments;
+      this.countryNames = newCountries;
+      
+      if (this.journal != null) { this.compactJournal(); } // Loaded contents can't be journaled. Snapshot them
+   }
+   
+   // Desc.:   Method to open a snapshot file in read-only mode. The file is memory-mapped and lookups are answered
+   //          directly from it, creating player and match objects only for the rows that are returned. Startup
+   //          is nearly instant and processes opening the same file share its pages.
+   //          Inserting, updating or deleting throws an exception until another database is loaded or the
+   //          database is reset.
+   // Input:   File object
+   // Output:  Throws exception if file does not exist, or if it can't be read or is not a valid snapshot
+   public synchronized void openSnapshot(File file) throws FileNotFoundException, TennisDatabaseException {
+      TennisDatabaseSnapshot snapshot = TennisDatabaseSnapshot.open(file);
+      
+      this.closeJournal(); // A read-only database has nothing to journal
+      this.tpc = new TennisPlayersContainer();
+      this.tmc = new TennisMatchesContainer();
+      this.newDictionaries();
+      this.view = new TennisDatabaseSnapshotView(snapshot, this.tournamentNames, this.countryNames);
+   }
+   
+   // Desc.:   Method to make the database durable with a snapshot file and an append-only journal. The database
+   //          is loaded from the snapshot (if it exists) and the mutations recorded in the journal are replayed
+   //          on top of it. From then on every insert, update, delete and reset is appended to the journal, and a
+   //          background thread compacts the journal into a new snapshot once it reaches compactThresholdBytes.
+   // Input:   Snapshot and journal files, sync policy (JOURNAL_SYNC_ALWAYS, JOURNAL_SYNC_INTERVAL or
+   //          JOURNAL_SYNC_NONE), interval of group commits in ms, and journal size that triggers a compaction
+   // Output:  Throws exception if the snapshot or journal can't be read, or the journal can't be written
+   public synchronized void openJournal(File snapshot, File journal, int syncPolicy, long syncIntervalMs, long compactThresholdBytes)
+      throws TennisDatabaseException {
+      if (syncPolicy < JOURNAL_SYNC_ALWAYS || syncPolicy > JOURNAL_SYNC_NONE) { throw new TennisDatabaseRuntimeException("Error opening journal! Unknown sync policy: " + syncPolicy); }
+      this.closeJournal();
+      
+      if (snapshot.exists()) {
+         try { this.loadSnapshot(snapshot); }
+         catch (FileNotFoundException e) { throw new TennisDatabaseException("Error opening journal! " + e.getMessage()); }
+      } else {
+         this.resetDatabase();
+      }
+      this.journal = TennisDatabaseJournal.open(this, snapshot, journal, syncPolicy, syncIntervalMs, compactThresholdBytes); // Replays into this database
+   }
+   
+   // Desc.:   Method to make the database durable, group-committing every 100 ms and compacting at 64 MB
+   // Input:   Snapshot and journal files
+   // Output:  Throws exception if the snapshot or journal can't be read, or the journal can't be written
+   public void openJournal(File snapshot, File journal) throws TennisDatabaseException {
+      this.openJournal(snapshot, journal, JOURNAL_SYNC_INTERVAL, 100, 64L * 1024 * 1024);
+   }
+   
+   // Desc.:   Forces all journaled mutations to disk
+   // Output:  Throws exception if the journal can't be written
+   public synchronized void flushJournal() throws TennisDatabaseRuntimeException {
+      if (this.journal == null) { return; }
+      try {
+         this.journal.flush(true);
+      } catch (IOException e) {
+         throw new TennisDatabaseRuntimeException("Error writing journal! " + e.getMessage());
+      }
+   }
+   
+   // Desc.:   Writes the database to a new snapshot and empties the journal. Also run by the background thread
+   //          when the journal grows past its compaction threshold. The lock is only held while copying the rows
+   //          and while replacing the files, so the database stays usable while the snapshot is written. Mutations
+   //          made meanwhile are carried over to the new journal. A compaction started later wins
+   // Output:  Throws exception if the snapshot or journal can't be written
+   public void compactJournal() throws TennisDatabaseRuntimeException {
+      TennisDatabaseJournal compacting;
+      TennisDatabaseSnapshot.Copy rows;
+      long generation, mark;
+      synchronized (this) {
+         if (this.journal == null) { return; }
+         compacting = this.journal;
+         generation = compacting.startCompaction();
+         rows = TennisDatabaseSnapshot.copy(this.tpc, this.tmc);
+         mark = compacting.size(); // Records after this point are not part of the rows
+      }
+      
+      File snapshotFile = compacting.getSnapshotFile().getAbsoluteFile();
+      File tmp = null;
+      try {
+         tmp = File.createTempFile(snapshotFile.getName() + ".compact", ".tmp", snapshotFile.getParentFile()); // Unique per compaction
+         rows.writeTo(tmp);
+         long[] snapshotId = TennisDatabaseJournal.seal(tmp);
+         synchronized (this) {
+            if (this.journal == compacting && compacting.isCurrent(generation)) { compacting.rebase(tmp, snapshotId, mark); }
          }
+      } catch (IOException e) {
+         throw new TennisDatabaseRuntimeException("Error compacting journal! " + e.getMessage());
+      } finally {
+         if (tmp != null && tmp.exists()) { tmp.delete(); } // Superseded or failed. A rebase moved it away
       }
    }
    
-   public void exportDatabase(File file) {
+   // Desc.:   Forces all journaled mutations to disk and stops journaling
+   // Output:  Throws exception if the journal can't be written
+   public synchronized void closeJournal() throws TennisDatabaseRuntimeException {
+      if (this.journal == null) { return; }
+      TennisDatabaseJournal closing = this.journal;
+      this.journal = null;
       try {
-         file.delete();
-         file.createNewFile();
-         
-         PrintWriter writer = new PrintWriter(file);
-         
-         tpc.treeToFile(writer);
-         tmc.matchesToFile(writer);
-         
-         writer.close(); // Close file.
-      } catch (IOException ex) {
+         closing.close();
+      } catch (IOException e) {
+         throw new TennisDatabaseRuntimeException("Error writing journal! " + e.getMessage());
       }
    }
    
+   // Desc.:   Checks whether the database was opened in read-only mode (openSnapshot)
+   // Output:  Boolean indicating if the database is read-only
+   public synchronized boolean isReadOnly() { return (this.view != null); }
+   
+   // Desc.:   Builds containers holding the whole read-only snapshot
+   // Input:   Empty containers to fill
+   // Output:  Throws exception if the snapshot is corrupt
+   private void restoreView(TennisPlayersContainer tpc, TennisMatchesContainer tmc) throws TennisDatabaseRuntimeException {
+      try {
+         this.view.getSnapshot().restore(tpc, tmc, this.tournamentNames, this.countryNames);
+      } catch (TennisDatabaseException e) {
+         throw new TennisDatabaseRuntimeException(e.getMessage());
+      }
+   }
+   
+   // Desc.:   Throws if the database is in read-only mode
+   // Output:  Throws an exception if the database can't be modified
+   private void checkWritable() throws TennisDatabaseRuntimeException {
+      if (this.view != null) { throw new TennisDatabaseRuntimeException("Error modifying database! Database is opened read-only."); }
+   }
+   
+   // Desc.:   Replaces the string dictionaries along with the containers, so values of the previous contents
+   //          are released and the stats only describe the new contents
+   private void newDictionaries() {
+      this.tournamentNames = new TennisStringDictionary("Tournaments");
+      this.countryNames = new TennisStringDictionary("Countries");
+   }
+   
    // Desc.:   Resets the database by creating new containers for tennis players and matches
-   public void resetDatabase() {
+   public synchronized void resetDatabase() {
       tpc = new TennisPlayersContainer();
       tmc = new TennisMatchesContainer();
+      view = null;
+      this.newDictionaries();
+      if (journal != null) { journal.logReset(); }
    }
    
    // Desc.:   Insert a tennis player into the database.
    // Input:   All the data required for a tennis player.
    //          Warning: player id must be unique.
    // Output:  Throws an exception if player id is already in this container.
-   public void insertPlayer( String id, String firstName, String lastName, int year, String country ) 
+   public synchronized void insertPlayer( String id, String firstName, String lastName, int year, String country ) 
       throws TennisDatabaseRuntimeException {
+      this.checkWritable();
+      PlayerKey key = PlayerKey.of(id);
       // Player id exists if a reference is returned. Throw exception.
-      if (tpc.search(tpc, id)) { throw new TennisDatabaseRuntimeException("Error inserting new player! Player ID " + id + " already exists!"); }
-      tpc.insertPlayer(new TennisPlayer(id, firstName, lastName, year, country)); // Otherwise... insert player
+      if (tpc.search(tpc, key)) { throw new TennisDatabaseRuntimeException("Error inserting new player! Player ID " + id + " already exists!"); }
+      tpc.insertPlayer(new TennisPlayer(key, firstName, lastName, year, countryNames.canonicalize(country))); // Otherwise... insert player
+      if (journal != null) { journal.logInsertPlayer(id, firstName, lastName, year, country); }
    }
 
    // Desc.:   Update a tennis player node in the database with new tennis player.
    // Input:   All the data required for a tennis player.
-   public void updatePlayer( String id, String firstName, String lastName, int year, String country )
+   public synchronized void updatePlayer( String id, String firstName, String lastName, int year, String country )
       throws TennisDatabaseRuntimeException {
+      this.checkWritable();
+      PlayerKey key = PlayerKey.of(id);
       // Player can't be updated if it doesn't exist already. Throw exception if this is the case.
-      if (!tpc.search(tpc, id)) { throw new TennisDatabaseRuntimeException("Error attempting to update player! Player doesn't exist with id: " + id); }
+      if (!tpc.search(tpc, key)) { throw new TennisDatabaseRuntimeException("Error attempting to update player! Player doesn't exist with id: " + id); }
       
-      tpc.updatePlayer(id, firstName, lastName, year, country); // Otherwise... update player
+      tpc.updatePlayer(key, firstName, lastName, year, countryNames.canonicalize(country)); // Otherwise... update player
+      if (journal != null) { journal.logUpdatePlayer(id, firstName, lastName, year, country); }
    }
    
    // Desc.:   Delete a tennis player from the database.
-   // Input:   UID of tennis player to delete.
+   // Input:   UID of tennis player to delete (any case, like every other lookup).
    // Output:  Throws an exception if player can't be found.
-   public void deletePlayer(String id)
+   public synchronized void deletePlayer(String id)
       throws TennisDatabaseRuntimeException {
-      tpc.deletePlayer(id);
+      this.checkWritable();
+      PlayerKey key = PlayerKey.of(id);
+      TennisPlayerNode pNode = tpc.retrievePlayer(tpc, key);
+      tpc.deletePlayer(key); // Throws if player doesn't exist
+      tmc.removeRivalries(pNode.getPlayer()); // Its matches stay, but no longer count as head-to-head
+      if (journal != null) { journal.logDeletePlayer(id); }
    }
 
    // Desc.:   Insert a tennis match into the database.
    // Input:   All the data required for a tennis match.
    //          Warning: match score must be valid.
    // Output:  Throws an exception if match score is not valid.
-   public void insertMatch( String idPlayer1, String idPlayer2, int year, int month, int day, String tournament, String score ) 
+   public synchronized void insertMatch( String idPlayer1, String idPlayer2, int year, int month, int day, String tournament, String score ) 
       throws TennisDatabaseRuntimeException {
+      this.checkWritable();
+      PlayerKey key1 = PlayerKey.of(idPlayer1);
+      PlayerKey key2 = PlayerKey.of(idPlayer2);
+      TennisPlayerNode p1Node = tpc.retrievePlayer(tpc, key1);
+      TennisPlayerNode p2Node = tpc.retrievePlayer(tpc, key2);
+      
+      // Players that don't exist yet are only created once the match is known to be valid
+      TennisPlayer p1 = (p1Node == null) ? new TennisPlayer(key1) : p1Node.getPlayer();
+      TennisPlayer p2 = (p2Node == null) ? new TennisPlayer(key2) : p2Node.getPlayer();
+      if (p2Node == null && key2.equals(key1)) { p2 = p1; } // Same new player on both sides
+      boolean p1Created = false, p2Created = false;
       try {
-         TennisPlayerNode p1Node = tpc.retrievePlayer(tpc, idPlayer1);
-         TennisPlayerNode p2Node = tpc.retrievePlayer(tpc, idPlayer2);
+         TennisMatch m = new TennisMatch(p1, p2, year, month, day, tournamentNames.canonicalize(tournament), score); // Validates date and score
          
-         // Create player nodes if they don't exist
          if (p1Node == null) {
-            TennisPlayer player = new TennisPlayer(idPlayer1);
-            tpc.insertPlayer(player);
-            p1Node = tpc.retrievePlayer(tpc, idPlayer1);
+            tpc.insertPlayer(p1);
+            p1Created = true;
          }
-         if (p2Node == null) {
-            TennisPlayer player = new TennisPlayer(idPlayer2);
-            tpc.insertPlayer(player);
-            p2Node = tpc.retrievePlayer(tpc, idPlayer2);
+         if (p2Node == null && p2 != p1) {
+            tpc.insertPlayer(p2);
+            p2Created = true;
          }
-         
-         TennisMatch m = new TennisMatch(p1Node.getPlayer(), p2Node.getPlayer(), year, month, day, tournament, score); // Create tennis match with input data
          tmc.insertMatch(m); // Add match to match container
          tpc.insertMatch(m); // Add match to matches list
       } catch (TennisDatabaseRuntimeException e) { // Pass along error message and inform user that match couldn't be inserted.
+         // Roll back the created players so memory matches the journal, which only records the match if it is inserted
+         if (p1Created) { tpc.deletePlayer(key1); }
+         if (p2Created) { tpc.deletePlayer(key2); }
          throw new TennisDatabaseRuntimeException(e.getMessage() + "\r\nMatch could not be inserted.");
       }
+      if (journal != null) { journal.logInsertMatch(idPlayer1, idPlayer2, year, month, day, tournament, score); }
    }
    
    // Desc.:   Prints all tennis players in the database to the console (sorted by id, alphabetically).
    // Output:  Throws an exception if there are no players in the database.
-   public void printAllPlayers()
+   public synchronized void printAllPlayers()
       throws TennisDatabaseRuntimeException { // Exception thrown by tennis players container if there are no players
-      tpc.printAllPlayers();
+      if (view != null) { view.printAllPlayers(); }
+      else { tpc.printAllPlayers(); }
    }
    
    // Desc.:   Prints all tennis matches in the database to the console (sorted by date, most recent first).
    // Output:  Throws an exception if there are no tennis matches in the database. Leave handling to caller.
-   public void printAllMatches()
+   public synchronized void printAllMatches()
       throws TennisDatabaseRuntimeException { // Exception thrown by tennis matches container if there are no matches. Leave handling to caller.
-      tmc.printAllMatches();
+      if (view != null) { view.printAllMatches(); }
+      else { tmc.printAllMatches(); }
    }
    
    // Desc.:   Prints all tennis matches of input tennis player (id) to the console (sorted by date, most recent first).
    // Input:   The id of the tennis player.
    // Output:  Throws an exception if the tennis player (id) does not exists, or if there are no tennis matches.
-   public void printMatchesOfPlayer( String playerId )
+   public synchronized void printMatchesOfPlayer( String playerId )
       throws TennisDatabaseRuntimeException { // Exception thrown by tennis players container if tennis player id doesn't exist or player has no matches
-      tpc.printMatchesOfPlayer(playerId);
+      PlayerKey key = PlayerKey.of(playerId);
+      if (view != null) { view.printMatchesOfPlayer(key); }
+      else { tpc.printMatchesOfPlayer(key); }
    }
    
    // Desc.:   Get an ObservableList of players for tableview
    // Output:  ObservableList of TennisPlayers for tableview to update its content with.
-   public ObservableList<TennisPlayer> getPlayersList() {
+   public synchronized ObservableList<TennisPlayer> getPlayersList() {
+      if (view != null) { return view.getPlayersList(); }
       return tpc.getPlayersList();
    }
    
+   // Desc.:   Get one page of the players sorted by id, for paged views and reports. Only the players of the page
+   //          are visited
+   // Input:   Position of the first player of the page (0 = first id) and maximum number of players
+   // Output:  ObservableList of at most limit TennisPlayers. Throws an exception if the offset or limit is negative
+   public synchronized ObservableList<TennisPlayer> getPlayersPage( int offset, int limit )
+      throws TennisDatabaseRuntimeException {
+      if (view != null) { return view.getPlayersPage(offset, limit); }
+      return tpc.getPlayersPage(offset, limit);
+   }
+   
+   // Desc.:   Get the number of players
+   // Output:  Number of players in the database
+   public synchronized int getPlayerCount() {
+      if (view != null) { return view.getSnapshot().getTreePlayerCount(); }
+      return tpc.size();
+   }
+   
+   // Desc.:   Get the player at a position of the players sorted by id
+   // Input:   Position of the player, 0 being the first id
+   // Output:  TennisPlayer object (reference). Throws an exception if the position is out of range
+   public synchronized TennisPlayer getPlayerAt( int position )
+      throws TennisDatabaseRuntimeException {
+      if (view != null) { return view.select(position); }
+      return tpc.select(position);
+   }
+   
+   // Desc.:   Get the position of a player among the players sorted by id, e.g. to open the page holding it
+   // Input:   String representing the uid of the player
+   // Output:  Number of players with a smaller id (the position of the player if it exists)
+   public synchronized int getPlayerPosition( String playerId ) {
+      PlayerKey key = PlayerKey.of(playerId);
+      if (view != null) { return view.rank(key); }
+      return tpc.rank(key);
+   }
+   
    // Desc.:   Get an ObservableList of matches for tableview
    // Output:  ObservableList of TennisMatches for tablewview to update its content with.
-   public ObservableList<TennisMatch> getMatchesList() {
+   public synchronized ObservableList<TennisMatch> getMatchesList() {
+      if (view != null) { return view.getMatchesList(); }
       return tmc.getMatchesList();
    }
    
@@ -190,9 +416,161 @@ public class TennisDatabase implements TennisDatabaseInterface {
    // Input:   String representing the uid of the player's whos matches are to be retrieved
    // Output:  ObservableList of TennisMatches of player. Throws an exception if 
    //          player does not exist 
-   public ObservableList<TennisMatch> getMatchesOfPlayer( String playerId )
+   public synchronized ObservableList<TennisMatch> getMatchesOfPlayer( String playerId )
       throws TennisDatabaseRuntimeException {
-      return tpc.getMatchesOfPlayer(playerId);
+      PlayerKey key = PlayerKey.of(playerId);
+      if (view != null) { return view.getMatchesOfPlayer(key); }
+      return tpc.getMatchesOfPlayer(key);
+   }
+   
+   // Desc.:   Get an ObservableList of the matches played between two dates, found through the date order of the
+   //          matches container (cost depends on the number of matches returned, not on the database size)
+   // Input:   First and last date as YYYYMMDD integers (e.g. 20180504), inclusive
+   // Output:  ObservableList of TennisMatches, most recent first. Empty if no match was played in the range
+   public synchronized ObservableList<TennisMatch> getMatchesBetween( int from, int to ) {
+      if (view != null) { return view.getMatchesBetween(from, to); }
+      return tmc.getMatchesBetween(from, to);
+   }
+   
+   // Desc.:   Get an ObservableList of the matches of a particular player played between two dates
+   // Input:   String representing the uid of the player and the first and last date as YYYYMMDD integers, inclusive
+   // Output:  ObservableList of TennisMatches of player, most recent first. Throws an exception if
+   //          player does not exist
+   public synchronized ObservableList<TennisMatch> getMatchesOfPlayerBetween( String playerId, int from, int to )
+      throws TennisDatabaseRuntimeException {
+      PlayerKey key = PlayerKey.of(playerId);
+      if (view != null) { return view.getMatchesOfPlayerBetween(key, from, to); }
+      return tpc.getMatchesOfPlayerBetween(key, from, to);
+   }
+   
+   // Desc.:   Get an ObservableList of the matches of a tournament, served by the tournament index
+   // Input:   Name of the tournament
+   // Output:  ObservableList of TennisMatches of the tournament, most recent first. Throws an exception if
+   //          the tournament has no matches
+   public synchronized ObservableList<TennisMatch> getMatchesOfTournament( String tournament )
+      throws TennisDatabaseRuntimeException {
+      if (view != null) { return view.getMatchesOfTournament(tournament, null); }
+      return tmc.getMatchesOfTournament(tournament);
+   }
+   
+   // Desc.:   Get an ObservableList of the matches of one year of a tournament
+   // Input:   Name of the tournament and year
+   // Output:  ObservableList of TennisMatches of the tournament, most recent first. Empty if there were none that
+   //          year. Throws an exception if the tournament has no matches
+   public synchronized ObservableList<TennisMatch> getMatchesOfTournament( String tournament, int year )
+      throws TennisDatabaseRuntimeException {
+      if (view != null) { return view.getMatchesOfTournament(tournament, year); }
+      return tmc.getMatchesOfTournament(tournament, year);
+   }
+   
+   // Desc.:   Get an ObservableList of all tournaments with matches in the database
+   // Output:  ObservableList of tournament names, sorted alphabetically
+   public synchronized ObservableList<String> getTournaments() {
+      if (view != null) { return view.getTournaments(); }
+      return tmc.getTournaments();
+   }
+   
+   // Desc.:   Get the head-to-head record of two players, served by the head-to-head index
+   // Input:   Strings representing the uids of the two players
+   // Output:  TennisHeadToHead seen from the first player: matches between the players (most recent first) and
+   //          the wins of each. Throws an exception if either player does not exist
+   public synchronized TennisHeadToHead getHeadToHead( String idA, String idB )
+      throws TennisDatabaseRuntimeException {
+      PlayerKey keyA = PlayerKey.of(idA), keyB = PlayerKey.of(idB);
+      if (view != null) {
+         int rowA = view.findPlayer(keyA), rowB = view.findPlayer(keyB);
+         if (rowA < 0 || rowB < 0) { throw new TennisDatabaseRuntimeException("Error getting head to head! Player does not exist."); }
+         return view.getHeadToHead(rowA, rowB);
+      }
+      TennisPlayerNode nodeA = tpc.retrievePlayer(tpc, keyA), nodeB = tpc.retrievePlayer(tpc, keyB);
+      if (nodeA == null || nodeB == null) { throw new TennisDatabaseRuntimeException("Error getting head to head! Player does not exist."); }
+      return tmc.getHeadToHead(nodeA.getPlayer(), nodeB.getPlayer());
+   }
+   
+   // Desc.:   Get the players born in a range of years, served by the birth year index
+   // Input:   First and last birth year, inclusive (equal for a single year)
+   // Output:  Lazy iterator of TennisPlayers sorted by birth year, then id. Must not be used after the database changes
+   public synchronized Iterator<TennisPlayer> getPlayersBornBetween( int fromYear, int toYear ) {
+      if (view != null) { return view.getAttributes().bornBetween(fromYear, toYear); }
+      return tpc.getPlayersBornBetween(fromYear, toYear);
+   }
+   
+   // Desc.:   Get the players of a country, served by the country index
+   // Input:   Country
+   // Output:  Lazy iterator of TennisPlayers sorted by birth year, then id. Must not be used after the database changes
+   public synchronized Iterator<TennisPlayer> getPlayersFromCountry( String country ) {
+      return this.getPlayersFromCountry(country, Integer.MIN_VALUE, Integer.MAX_VALUE);
+   }
+   
+   // Desc.:   Get the players of a country born in a range of years (e.g. "ESP" born 1996 or later)
+   // Input:   Country and first and last birth year, inclusive
+   // Output:  Lazy iterator of TennisPlayers sorted by birth year, then id. Must not be used after the database changes
+   public synchronized Iterator<TennisPlayer> getPlayersFromCountry( String country, int fromYear, int toYear ) {
+      if (view != null) { return view.getAttributes().fromCountry(country, fromYear, toYear); }
+      return tpc.getPlayersFromCountry(country, fromYear, toYear);
+   }
+   
+   // Desc.:   Finds players by the start of their name, for type-ahead lookups. Served by the name index
+   // Input:   Prefix of the full name ("FIRST LAST") or of the last name, any case, and the maximum number of results
+   // Output:  ObservableList of at most limit TennisPlayers, sorted by the matching name
+   public synchronized ObservableList<TennisPlayer> findPlayersByNamePrefix( String prefix, int limit ) {
+      if (view != null) { return FXCollections.observableList(view.getAttributes().findByNamePrefix(prefix, limit)); }
+      return tpc.findPlayersByNamePrefix(prefix, limit);
+   }
+   
+   // Desc.:   Gets the players with the best win percentage, served by the leaderboard. Players that played no
+   //          matches are not ranked
+   // Input:   Number of players
+   // Output:  ObservableList of at most k TennisPlayers, best first (ties broken by wins, then id)
+   public synchronized ObservableList<TennisPlayer> getTopPlayers( int k ) {
+      return this.getTopPlayers(k, TennisLeaderboard.DEFAULT_MIN_MATCHES);
+   }
+   
+   // Desc.:   Gets the players with the best win percentage among those that played a minimum number of matches
+   // Input:   Number of players and minimum number of matches played to be ranked
+   // Output:  ObservableList of at most k TennisPlayers, best first (ties broken by wins, then id)
+   public synchronized ObservableList<TennisPlayer> getTopPlayers( int k, int minMatches ) {
+      if (view != null) { return FXCollections.observableList(view.getLeaderboard(minMatches).getTop(k)); }
+      return tpc.getTopPlayers(k, minMatches);
+   }
+   
+   // Desc.:   Gets the rank of a player by win percentage, served by the leaderboard
+   // Input:   String representing the uid of the player
+   // Output:  Rank of the player (1 = best), or -1 if the player played no matches. Throws an exception if the
+   //          player does not exist
+   public synchronized int getRank( String playerId )
+      throws TennisDatabaseRuntimeException {
+      return this.getRank(playerId, TennisLeaderboard.DEFAULT_MIN_MATCHES);
+   }
+   
+   // Desc.:   Gets the rank of a player by win percentage among those that played a minimum number of matches
+   // Input:   String representing the uid of the player and minimum number of matches played to be ranked
+   // Output:  Rank of the player (1 = best), or -1 if the player played too few matches. Throws an exception if
+   //          the player does not exist
+   public synchronized int getRank( String playerId, int minMatches )
+      throws TennisDatabaseRuntimeException {
+      PlayerKey key = PlayerKey.of(playerId);
+      if (view != null) {
+         if (view.findPlayer(key) < 0) { throw new TennisDatabaseRuntimeException("Error getting rank of player! Player does not exist."); }
+         return view.getLeaderboard(minMatches).getRank(key);
+      }
+      return tpc.getRank(key, minMatches);
+   }
+   
+   // Desc.:   Looks up a tennis player by id
+   // Input:   String representing the uid of the player
+   // Output:  TennisPlayer object (reference), or null if the player does not exist
+   public synchronized TennisPlayer getPlayer( String playerId ) {
+      PlayerKey key = PlayerKey.of(playerId);
+      if (view != null) { return view.retrievePlayer(key); }
+      TennisPlayerNode pNode = tpc.retrievePlayer(tpc, key);
+      return (pNode == null) ? null : pNode.getPlayer();
+   }
+   
+   // Desc.:   Gets the size and hit rate of the string dictionaries of this database's current contents
+   // Output:  Array of TennisDictionaryStats objects (tournaments, countries)
+   public synchronized TennisDictionaryStats[] getDictionaryStats() {
+      return new TennisDictionaryStats[] { this.tournamentNames.getStats(), this.countryNames.getStats() };
    }
 }
-// © 2018 Jeremy Maxey-Vesperman
\ No newline at end of file
+// © 2018 Jeremy Maxey-Vesperman
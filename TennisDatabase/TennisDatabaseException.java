@@ -14,4 +14,4 @@ public class TennisDatabaseException extends java.lang.Exception {
    // Input: Description of the runtime error.
    public TennisDatabaseException( String s ) { super(s); }
 }
-// © 2018 Giuseppe Turini
\ No newline at end of file
+// © 2018 Giuseppe Turini
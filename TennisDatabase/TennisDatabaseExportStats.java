@@ -0,0 +1,26 @@
+/*
+ *    Class Name: TennisDatabaseExportStats
+ *    Interface:  N/A
+ *    Package:    TennisDatabase
+ *    Purpose:    Result of a database export: number of bytes and records (player and match lines) written.
+ *    Developer:  agent
+ *    Modified:   10/18/2026
+ */
+
+package TennisDatabase;
+
+public class TennisDatabaseExportStats {
+   private long bytesWritten;
+   private long recordsWritten;
+   
+   /* Constructors */
+   public TennisDatabaseExportStats( long bytesWritten, long recordsWritten ) {
+      this.bytesWritten = bytesWritten;
+      this.recordsWritten = recordsWritten;
+   }
+   
+   /* Getters */
+   public long getBytesWritten() { return this.bytesWritten; }
+   public long getRecordsWritten() { return this.recordsWritten; }
+}
+// © 2026 agent
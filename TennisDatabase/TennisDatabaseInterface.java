@@ -39,4 +39,4 @@ interface TennisDatabaseInterface {
    public void insertMatch( String idPlayer1, String idPlayer2, int year, int month, int day, String tournament, String score ) 
       throws TennisDatabaseRuntimeException;      
 }
-// © 2018 Giuseppe Turini
\ No newline at end of file
+// © 2018 Giuseppe Turini
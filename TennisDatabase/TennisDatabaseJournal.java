@@ -0,0 +1,414 @@
+/*
+ *    Class Name: TennisDatabaseJournal
+ *    Interface:  N/A
+ *    Package:    TennisDatabase
+ *    Purpose:    Append-only journal of database mutations, applied on top of a snapshot. Layout:
+ *                   Header   MAGIC, VERSION, length and CRC-32 of the snapshot the journal applies to
+ *                            (-1 and 0 when there is no snapshot)
+ *                   Records  payload length, payload (record type followed by its fields), CRC-32 of the payload
+ *                Strings are UTF-8 with a variable length prefix, numbers are big endian. A record that is cut off
+ *                or fails its CRC ends the journal (the rest is dropped on replay). A compaction writes the new
+ *                journal next to the old one (".tmp") before replacing the snapshot. If it stops before replacing
+ *                the journal too, the next open finds the new journal matching the snapshot and finishes the job.
+ *                A journal whose header doesn't match the snapshot is discarded.
+ *    Developer:  agent
+ *    Modified:   10/18/2026
+ */
+
+package TennisDatabase;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+class TennisDatabaseJournal {
+   public static final int MAGIC = 0x54444A4C; // "TDJL"
+   public static final int VERSION = 1;
+
+   // Record types
+   private static final byte INSERT_PLAYER = 1, UPDATE_PLAYER = 2, DELETE_PLAYER = 3, INSERT_MATCH = 4, RESET = 5;
+
+   private static final int HEADER_SIZE = 4 + 4 + 8 + 8;
+   private static final int FLUSH_SIZE = 1 << 16; // Buffered bytes written to the file at once (not forced)
+   private static final long COMPACT_CHECK_MS = 1000; // How often the background thread checks the journal size
+
+   private TennisDatabase db; // Database the journal belongs to. Its lock guards the journal
+   private File file, snapshotFile;
+   private FileChannel channel;
+   private int syncPolicy;
+   private long compactThreshold;
+   private ByteBuffer buf = ByteBuffer.allocate(FLUSH_SIZE * 2); // Records not written to the file yet
+   private long written; // Bytes of the file, excluding buffered records
+   private CRC32 crc = new CRC32();
+   private ScheduledExecutorService scheduler;
+   private boolean closed;
+   private long generation; // Bumped when a compaction starts and on close. Only the latest compaction may rebase
+
+   // Constructor - use open() to open a journal
+   private TennisDatabaseJournal( TennisDatabase db, File snapshotFile, File file, int syncPolicy, long compactThreshold ) {
+      this.db = db;
+      this.snapshotFile = snapshotFile;
+      this.file = file;
+      this.syncPolicy = syncPolicy;
+      this.compactThreshold = compactThreshold;
+   }
+
+   // Desc.:   Opens a journal, replaying its records into the database (which must already hold the snapshot),
+   //          and starts the background thread for syncing and compaction
+   // Input:   Database, snapshot and journal files, sync policy (TennisDatabase.JOURNAL_SYNC_*), sync interval in ms
+   //          and the journal size in bytes that triggers a compaction
+   // Output:  Open journal. Throws exception if the journal can't be read or written
+   public static TennisDatabaseJournal open( TennisDatabase db, File snapshotFile, File file, int syncPolicy, long syncIntervalMs, long compactThreshold )
+      throws TennisDatabaseException {
+      TennisDatabaseJournal journal = new TennisDatabaseJournal(db, snapshotFile, file, syncPolicy, compactThreshold);
+      try {
+         long[] snapshotId = checksum(snapshotFile);
+         File pending = pendingFile(file);
+         if (pending.exists()) { // Left by a compaction that stopped between its two file replacements
+            if (matches(pending, snapshotId)) { Files.move(pending.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE); }
+            else { Files.delete(pending.toPath()); } // Snapshot was never replaced. Old journal is still current
+         }
+         long end = journal.replay(snapshotId);
+
+         journal.channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+         if (end < HEADER_SIZE) { // New or stale journal. Start over
+            journal.channel.truncate(0);
+            journal.channel.write(header(snapshotId), 0);
+            end = HEADER_SIZE;
+         }
+         journal.channel.truncate(end); // Drop a torn record at the end
+         journal.channel.position(end);
+         journal.channel.force(true);
+         journal.written = end;
+      } catch (IOException e) {
+         journal.closeChannel();
+         throw new TennisDatabaseException("Error opening journal! " + e.getMessage());
+      }
+
+      journal.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+         Thread t = new Thread(r, "TennisDatabase journal");
+         t.setDaemon(true);
+         return t;
+      });
+      long period = (syncPolicy == TennisDatabase.JOURNAL_SYNC_INTERVAL) ? Math.max(1, Math.min(syncIntervalMs, COMPACT_CHECK_MS)) : COMPACT_CHECK_MS;
+      journal.scheduler.scheduleWithFixedDelay(journal::tick, period, period, TimeUnit.MILLISECONDS);
+      return journal;
+   }
+
+   /* Logging */
+
+   // Desc.:   Records a successful mutation of the database
+   // Input:   Arguments of the mutation
+   // Output:  Throws exception if the record can't be written
+   public void logInsertPlayer( String id, String firstName, String lastName, int year, String country ) {
+      this.logPlayer(INSERT_PLAYER, id, firstName, lastName, year, country);
+   }
+   public void logUpdatePlayer( String id, String firstName, String lastName, int year, String country ) {
+      this.logPlayer(UPDATE_PLAYER, id, firstName, lastName, year, country);
+   }
+   public void logDeletePlayer( String id ) {
+      int start = this.beginRecord(DELETE_PLAYER);
+      this.putString(id);
+      this.endRecord(start);
+   }
+   public void logInsertMatch( String idPlayer1, String idPlayer2, int year, int month, int day, String tournament, String score ) {
+      int start = this.beginRecord(INSERT_MATCH);
+      this.putString(idPlayer1);
+      this.putString(idPlayer2);
+      this.putInt(year);
+      this.putInt(month);
+      this.putInt(day);
+      this.putString(tournament);
+      this.putString(score);
+      this.endRecord(start);
+   }
+   public void logReset() { this.endRecord(this.beginRecord(RESET)); }
+
+   private void logPlayer( byte type, String id, String firstName, String lastName, int year, String country ) {
+      int start = this.beginRecord(type);
+      this.putString(id);
+      this.putString(firstName);
+      this.putString(lastName);
+      this.putInt(year);
+      this.putString(country);
+      this.endRecord(start);
+   }
+
+   // Desc.:   Starts a record in the buffer, leaving room for its length
+   // Output:  Buffer position of the record
+   private int beginRecord( byte type ) {
+      this.ensure(5);
+      int start = this.buf.position();
+      this.buf.putInt(0); // Length. Filled in by endRecord
+      this.buf.put(type);
+      return start;
+   }
+
+   // Desc.:   Completes a record with its length and CRC, then writes it out as the sync policy requires
+   private void endRecord( int start ) {
+      int length = this.buf.position() - start - 4;
+      this.buf.putInt(start, length);
+      this.crc.reset();
+      this.crc.update(this.buf.array(), start + 4, length);
+      this.ensure(4);
+      this.buf.putInt((int) this.crc.getValue());
+
+      try {
+         if (this.syncPolicy == TennisDatabase.JOURNAL_SYNC_ALWAYS) { this.flush(true); }
+         else if (this.buf.position() >= FLUSH_SIZE) { this.flush(false); }
+      } catch (IOException e) {
+         throw new TennisDatabaseRuntimeException("Error writing journal! " + e.getMessage());
+      }
+   }
+
+   private void putInt( int v ) {
+      this.ensure(4);
+      this.buf.putInt(v);
+   }
+
+   // Desc.:   Writes a string as its UTF-8 length (7 bits per byte, high bit set if more follow) and bytes
+   private void putString( String s ) {
+      byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+      this.ensure(5 + bytes.length);
+      int len = bytes.length;
+      while (len >= 0x80) {
+         this.buf.put((byte) (len | 0x80));
+         len >>>= 7;
+      }
+      this.buf.put((byte) len);
+      this.buf.put(bytes);
+   }
+
+   // Desc.:   Grows the buffer if fewer than n bytes are left
+   private void ensure( int n ) {
+      if (this.buf.remaining() < n) {
+         ByteBuffer grown = ByteBuffer.allocate(Math.max(this.buf.capacity() * 2, this.buf.position() + n));
+         this.buf.flip();
+         grown.put(this.buf);
+         this.buf = grown;
+      }
+   }
+
+   /* Syncing */
+
+   // Desc.:   Writes buffered records to the file
+   // Input:   Whether to force them to the storage device as well
+   public void flush( boolean force ) throws IOException {
+      if (this.buf.position() > 0) {
+         this.buf.flip();
+         while (this.buf.hasRemaining()) { this.written += this.channel.write(this.buf); }
+         this.buf.clear();
+      }
+      if (force) { this.channel.force(false); }
+   }
+
+   // Desc.:   Gets the size of the journal, including buffered records
+   public long size() { return this.written + this.buf.position(); }
+
+   // Desc.:   Gets the journal size in bytes that triggers a compaction
+   public long getCompactThreshold() { return this.compactThreshold; }
+
+   // Desc.:   Background task. Group-commits buffered records and compacts the journal once it is large enough.
+   //          The compaction only holds the database lock while copying the rows, not while writing the snapshot
+   private void tick() {
+      boolean compact;
+      synchronized (this.db) {
+         if (this.closed) { return; }
+         try {
+            if (this.syncPolicy == TennisDatabase.JOURNAL_SYNC_INTERVAL) { this.flush(true); }
+         } catch (IOException e) { // Keep the task scheduled. Next run retries
+            System.out.println("Error in journal background task! " + e.getMessage());
+         }
+         compact = (this.size() >= this.compactThreshold);
+      }
+      if (compact) {
+         try {
+            this.db.compactJournal();
+         } catch (RuntimeException e) { // Keep the task scheduled. Next run retries
+            System.out.println("Error in journal background task! " + e.getMessage());
+         }
+      }
+   }
+
+   /* Compaction */
+
+   // Desc.:   Starts a compaction. Must be called under the database lock, along with copying the rows
+   // Output:  Generation of the compaction, which makes any compaction started before it obsolete
+   public long startCompaction() { return ++this.generation; }
+
+   // Desc.:   Checks whether a compaction is still the latest one and the journal is open
+   // Input:   Generation returned by startCompaction
+   public boolean isCurrent( long generation ) { return !this.closed && this.generation == generation; }
+
+   // Desc.:   Forces a fully written snapshot to disk, before it replaces the current one
+   // Input:   Snapshot file
+   // Output:  Length and CRC identifying the snapshot in the journal header
+   static long[] seal( File snapshot ) throws IOException {
+      try (FileChannel ch = FileChannel.open(snapshot.toPath(), StandardOpenOption.WRITE)) { ch.force(true); }
+      return checksum(snapshot);
+   }
+
+   // Desc.:   Replaces the snapshot and starts a new journal on top of it, holding the records logged since the
+   //          rows of the snapshot were copied
+   // Input:   Sealed temporary snapshot file next to the snapshot, its length and CRC (see seal), and the journal
+   //          size when its rows were copied
+   public void rebase( File newSnapshot, long[] snapshotId, long mark ) throws IOException {
+      this.flush(true);
+
+      File newJournal = pendingFile(this.file);
+      long tail = this.written - mark;
+      try (FileChannel ch = FileChannel.open(newJournal.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+         ch.write(header(snapshotId));
+         for (long copied = 0; copied < tail; ) { copied += this.channel.transferTo(mark + copied, tail - copied, ch); }
+         ch.force(true);
+      }
+
+      // A crash between the two moves leaves the new journal next to the new snapshot. open() finds it there
+      // and completes the second move. Neither file is mapped, so they can be replaced on every system
+      Files.move(newSnapshot.toPath(), this.snapshotFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      this.channel.close();
+      Files.move(newJournal.toPath(), this.file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+      this.channel = FileChannel.open(this.file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+      this.written = HEADER_SIZE + tail;
+      this.channel.position(this.written);
+   }
+
+   // Desc.:   Gets the snapshot file this journal applies to
+   public File getSnapshotFile() { return this.snapshotFile; }
+
+   // Desc.:   Writes all records, stops the background thread, and closes the file
+   public void close() throws IOException {
+      this.closed = true;
+      this.generation++; // A running compaction must not rebase a closed journal
+      this.scheduler.shutdown(); // Not awaited. A running tick sees closed once it gets the database lock
+      try { this.flush(true); }
+      finally { this.closeChannel(); }
+   }
+
+   private void closeChannel() {
+      try { if (this.channel != null) { this.channel.close(); } } catch (IOException e) { } // Nothing left to write. Ignore
+   }
+
+   /* Replay */
+
+   // Desc.:   Applies the records of the journal file to the database. The file is streamed rather than mapped,
+   //          so it can be truncated and replaced afterwards on every system
+   // Input:   Length and CRC of the snapshot the database was loaded from
+   // Output:  File offset after the last valid record. 0 if the journal doesn't exist or belongs to another snapshot
+   private long replay( long[] snapshotId ) throws IOException, TennisDatabaseException {
+      if (!this.file.exists()) { return 0; }
+
+      long size = this.file.length();
+      try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(this.file), FLUSH_SIZE))) {
+         if (size < HEADER_SIZE) { return 0; } // Header was never completely written
+         if (in.readInt() != MAGIC) { throw new TennisDatabaseException("Error opening journal! File is not a database journal: " + this.file.getPath()); }
+         int version = in.readInt();
+         if (version != VERSION) { throw new TennisDatabaseException("Error opening journal! Unsupported journal version: " + version); }
+         if (in.readLong() != snapshotId[0] || in.readLong() != snapshotId[1]) { return 0; } // Already part of the snapshot
+
+         long pos = HEADER_SIZE;
+         while (pos + 4 <= size) {
+            int length = in.readInt();
+            if (length <= 0 || pos + 4 + length + 4 > size) { break; } // Torn record
+
+            byte[] payload = new byte[length];
+            in.readFully(payload);
+            this.crc.reset();
+            this.crc.update(payload, 0, length);
+            if ((int) this.crc.getValue() != in.readInt()) { break; } // Corrupt record
+
+            this.apply(ByteBuffer.wrap(payload));
+            pos += 4 + length + 4;
+         }
+         return pos;
+      } catch (EOFException e) { // Sizes were checked against the file. It shrank while reading
+         throw new TennisDatabaseException("Error opening journal! File changed while reading: " + this.file.getPath());
+      }
+   }
+
+   // Desc.:   Applies one record to the database
+   // Input:   Buffer positioned at the record type
+   private void apply( ByteBuffer in ) {
+      byte type = in.get();
+      try {
+         switch (type) {
+            case INSERT_PLAYER:
+               this.db.insertPlayer(getString(in), getString(in), getString(in), in.getInt(), getString(in));
+               break;
+            case UPDATE_PLAYER:
+               this.db.updatePlayer(getString(in), getString(in), getString(in), in.getInt(), getString(in));
+               break;
+            case DELETE_PLAYER:
+               this.db.deletePlayer(getString(in));
+               break;
+            case INSERT_MATCH:
+               this.db.insertMatch(getString(in), getString(in), in.getInt(), in.getInt(), in.getInt(), getString(in), getString(in));
+               break;
+            case RESET:
+               this.db.resetDatabase();
+               break;
+            default: // Written by a newer version. Skip it
+               System.out.println("Error replaying journal! Unknown record type: " + type + "\r\nSkipping record.");
+         }
+      } catch (TennisDatabaseRuntimeException e) { // Mutations are only journaled after succeeding. Report and go on
+         System.out.println(e.getMessage() + "\r\nSkipping journal record.");
+      }
+   }
+
+   private static String getString( ByteBuffer in ) {
+      int len = 0;
+      for (int shift = 0; ; shift += 7) {
+         byte b = in.get();
+         len |= (b & 0x7F) << shift;
+         if (b >= 0) { break; }
+      }
+      byte[] bytes = new byte[len];
+      in.get(bytes);
+      return new String(bytes, StandardCharsets.UTF_8);
+   }
+
+   /* Helpers */
+
+   // Desc.:   Creates the journal header for a snapshot
+   private static ByteBuffer header( long[] snapshotId ) {
+      ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+      header.putInt(MAGIC).putInt(VERSION).putLong(snapshotId[0]).putLong(snapshotId[1]);
+      header.flip();
+      return header;
+   }
+
+   // Desc.:   Gets the file a compaction writes the new journal to before it replaces the journal
+   private static File pendingFile( File file ) { return new File(file.getPath() + ".tmp"); }
+
+   // Desc.:   Checks whether a journal file was written for a snapshot
+   // Input:   Journal file and the length and CRC of the snapshot
+   private static boolean matches( File file, long[] snapshotId ) throws IOException {
+      if (file.length() < HEADER_SIZE) { return false; }
+      try (DataInputStream in = new DataInputStream(new FileInputStream(file))) {
+         return in.readInt() == MAGIC && in.readInt() == VERSION && in.readLong() == snapshotId[0] && in.readLong() == snapshotId[1];
+      }
+   }
+
+   // Desc.:   Identifies a snapshot file by its length and CRC-32
+   // Output:  { length, CRC }, or { -1, 0 } if the file doesn't exist
+   static long[] checksum( File file ) throws IOException {
+      if (!file.exists()) { return new long[] { -1, 0 }; }
+      CRC32 fileCrc = new CRC32();
+      byte[] chunk = new byte[1 << 16];
+      long length = 0;
+      try (InputStream in = new FileInputStream(file)) {
+         for (int n; (n = in.read(chunk)) > 0; length += n) { fileCrc.update(chunk, 0, n); }
+      }
+      return new long[] { length, fileCrc.getValue() };
+   }
+}
+// © 2026 agent
@@ -0,0 +1,209 @@
+/*
+ *    Class Name: TennisDatabaseLoader
+ *    Interface:  N/A
+ *    Package:    TennisDatabase
+ *    Purpose:    Bulk-loads a database file. All entries are parsed first, then the player tree is built
+ *                balanced from the sorted players and the match containers are built from the sorted matches,
+ *                instead of inserting one entry at a time.
+ *    Developer:  agent
+ *    Modified:   10/18/2026
+ */
+
+package TennisDatabase;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+class TennisDatabaseLoader {
+   private static final long SEGMENT_SIZE = 64L * 1024 * 1024; // Bytes mapped and parsed at a time
+   private static final long MIN_PARALLEL_CHUNK_SIZE = 1024 * 1024; // Smaller chunks aren't worth a task
+   
+   private ArrayList<TennisDatabaseRecord> records; // Parsed entries in file order
+   private boolean parallel; // Whether the file was parsed in parallel. Sorting is then parallel too
+
+   // Constructor - Default creates a loader with no parsed entries
+   public TennisDatabaseLoader() { this.records = new ArrayList<TennisDatabaseRecord>(); }
+
+   // Desc.:   Parses every entry of a database file into records. The file is memory-mapped in segments
+   //          that end on line boundaries and each segment is parsed straight from the mapped bytes.
+   // Input:   File object
+   // Output:  Throws exception if file does not exist, or a runtime exception if it can't be read
+   public void parse( File file ) throws FileNotFoundException {
+      this.parse(file, 1);
+   }
+   
+   // Desc.:   Parses every entry of a database file into records, using several threads for large files.
+   //          The file is split into line-aligned chunks that are parsed concurrently on a ForkJoinPool.
+   //          Records of the chunks are then concatenated in file order, so the result is identical to
+   //          a sequential parse.
+   // Input:   File object and the number of threads to use (1 parses sequentially on the calling thread)
+   // Output:  Throws exception if file does not exist, or a runtime exception if it can't be read
+   public void parse( File file, int parallelism ) throws FileNotFoundException {
+      FileInputStream in = new FileInputStream(file); // Throws if file does not exist
+      try {
+         final FileChannel channel = in.getChannel();
+         long size = channel.size();
+         
+         if (parallelism <= 1 || size <= MIN_PARALLEL_CHUNK_SIZE) { // Not worth splitting
+            long[] bounds = splitLines(channel, SEGMENT_SIZE);
+            TennisDatabaseParser parser = new TennisDatabaseParser(this.records);
+            for (int i = 0; i + 1 < bounds.length; i++) {
+               parser.parse(channel.map(FileChannel.MapMode.READ_ONLY, bounds[i], bounds[i + 1] - bounds[i]));
+            }
+            return;
+         }
+         
+         // A few chunks per thread evens out the work when some chunks parse slower than others
+         long chunkSize = Math.max(MIN_PARALLEL_CHUNK_SIZE, Math.min(SEGMENT_SIZE, size / (parallelism * 4L) + 1));
+         final long[] bounds = splitLines(channel, chunkSize);
+         
+         ForkJoinPool pool = new ForkJoinPool(parallelism);
+         try {
+            ArrayList<ForkJoinTask<ArrayList<TennisDatabaseRecord>>> tasks = new ArrayList<ForkJoinTask<ArrayList<TennisDatabaseRecord>>>();
+            for (int i = 0; i + 1 < bounds.length; i++) {
+               final int chunk = i;
+               tasks.add(pool.submit(() -> { // Each chunk gets its own parser and record list
+                  ArrayList<TennisDatabaseRecord> chunkRecords = new ArrayList<TennisDatabaseRecord>();
+                  new TennisDatabaseParser(chunkRecords).parse(channel.map(FileChannel.MapMode.READ_ONLY, bounds[chunk], bounds[chunk + 1] - bounds[chunk]));
+                  return chunkRecords;
+               }));
+            }
+            for (ForkJoinTask<ArrayList<TennisDatabaseRecord>> task : tasks) { // Join in file order
+               this.records.addAll(task.join());
+            }
+         } finally {
+            pool.shutdown();
+         }
+         this.parallel = true;
+      } catch (IOException e) {
+         throw new TennisDatabaseRuntimeException("Error reading database file! " + e.getMessage());
+      } catch (RuntimeException e) { // Unwrap I/O failures of worker threads
+         if (e.getCause() instanceof IOException) {
+            throw new TennisDatabaseRuntimeException("Error reading database file! " + e.getCause().getMessage());
+         }
+         throw e;
+      } finally {
+         try { in.close(); } catch (IOException e) { } // Nothing left to read. Ignore
+      }
+   }
+   
+   // Desc.:   Splits a file into consecutive byte ranges of roughly equal size, each ending on a line boundary
+   // Input:   Channel of the file and the target size of a range
+   // Output:  Array of range boundaries (first is 0, last is the file size). Range i is [bounds[i], bounds[i + 1])
+   static long[] splitLines( FileChannel channel, long rangeSize ) throws IOException {
+      long size = channel.size();
+      ArrayList<Long> bounds = new ArrayList<Long>();
+      bounds.add(0L);
+      
+      ByteBuffer probe = ByteBuffer.allocate(4096);
+      long pos = 0;
+      while (size - pos > rangeSize) {
+         long boundary = size; // If no line break follows, the rest of the file is one range
+         long scan = pos + rangeSize - 1; // Range ends right after the first LF at or after this position
+         
+         searching:
+         while (scan < size) {
+            probe.clear();
+            int n = channel.read(probe, scan);
+            if (n <= 0) { break; }
+            for (int i = 0; i < n; i++) {
+               if (probe.get(i) == '\n') {
+                  boundary = scan + i + 1;
+                  break searching;
+               }
+            }
+            scan += n;
+         }
+         
+         if (boundary >= size) { break; }
+         bounds.add(boundary);
+         pos = boundary;
+      }
+      bounds.add(size);
+      
+      long[] result = new long[bounds.size()];
+      for (int i = 0; i < result.length; i++) { result[i] = bounds.get(i); }
+      return result;
+   }
+   
+   // Desc.:   Builds the containers from the parsed records. The result is the same as inserting every entry
+   //          in file order: a later PLAYER entry updates an earlier one, and players referenced by a valid match
+   //          entry are created even if they have no PLAYER entry. Invalid matches create no players.
+   // Input:   Empty containers to fill and the dictionaries sharing the tournaments and countries of the database
+   // Output:  Error messages of invalid entries printed to the console in file order
+   public void build( TennisPlayersContainer tpc, TennisMatchesContainer tmc, TennisStringDictionary tournamentNames, TennisStringDictionary countryNames ) {
+      // Resolve players: last PLAYER entry for an id wins
+      HashMap<PlayerKey, TennisPlayer> players = new HashMap<PlayerKey, TennisPlayer>();
+      for (TennisDatabaseRecord r : this.records) {
+         if (r.getType() == TennisDatabaseRecord.PLAYER) {
+            TennisPlayer p = players.get(PlayerKey.of(r.getId()));
+            if (p == null) {
+               p = new TennisPlayer(r.getId(), r.getFirstName(), r.getLastName(), r.getYear(), countryNames.canonicalize(r.getCountry()));
+               players.put(p.getKey(), p);
+            } else { // Player id already exists... update entry with new player data
+               p.setFirstName(r.getFirstName());
+               p.setLastName(r.getLastName());
+               p.setYear(r.getYear());
+               p.setCountry(countryNames.canonicalize(r.getCountry()));
+            }
+         }
+      }
+
+      // Create matches in file order so messages come out in the same order as a sequential load. Players
+      // without a PLAYER entry are only created once their first match is known to be valid
+      ArrayList<TennisMatch> matches = new ArrayList<TennisMatch>();
+      for (TennisDatabaseRecord r : this.records) {
+         if (r.getType() == TennisDatabaseRecord.INVALID) {
+            System.out.println(r.getMessage());
+         } else if (r.getType() == TennisDatabaseRecord.MATCH) {
+            try {
+               PlayerKey key1 = PlayerKey.of(r.getPlayer1Id()), key2 = PlayerKey.of(r.getPlayer2Id());
+               TennisPlayer p1 = players.get(key1), p2 = players.get(key2);
+               if (p1 == null) { p1 = new TennisPlayer(key1); }
+               if (p2 == null) { p2 = key2.equals(key1) ? p1 : new TennisPlayer(key2); } // Same new player on both sides
+               matches.add(new TennisMatch(p1, p2, r.getYear(), r.getMonth(), r.getDay(), tournamentNames.canonicalize(r.getTournament()), r.getScore()));
+               players.putIfAbsent(key1, p1); // Match is valid. Keep its players
+               players.putIfAbsent(key2, p2);
+            } catch (TennisDatabaseRuntimeException e) {
+               System.out.println(e.getMessage() + "\r\nMatch could not be inserted.");
+            } catch (NullPointerException e) { // Entry does not contain enough fields to create match.
+               System.out.println("Error parsing match entry. Invalid number of fields provided.\r\nSkipping match entry.");
+            }
+         }
+      }
+
+      // Sort players once and build the balanced tree bottom-up
+      TennisPlayer[] sortedPlayers = players.values().toArray(new TennisPlayer[players.size()]);
+      Arrays.sort(sortedPlayers);
+      tpc.bulkLoad(sortedPlayers);
+
+      // Sort matches once. Stable sort keeps equal matches in file order, which is the order player lists use
+      TennisMatch[] sortedMatches = matches.toArray(new TennisMatch[matches.size()]);
+      if (this.parallel) { Arrays.parallelSort(sortedMatches); } // Also stable
+      else { Arrays.sort(sortedMatches); }
+
+      // Single sweep: append each match to both players' lists and update their win/loss records
+      for (TennisMatch m : sortedMatches) {
+         tpc.retrievePlayer(tpc, m.getPlayer1().getKey()).insertMatch(m);
+         tpc.retrievePlayer(tpc, m.getPlayer2().getKey()).insertMatch(m);
+      }
+
+      // The match container places newer inserts in front of equal matches. Reverse runs of equal matches
+      int runStart = 0;
+      for (int i = 1; i <= sortedMatches.length; i++) {
+         if (i == sortedMatches.length || sortedMatches[i].compareTo(sortedMatches[runStart]) != 0) {
+            Collections.reverse(Arrays.asList(sortedMatches).subList(runStart, i));
+            runStart = i;
+         }
+      }
+      tmc.bulkLoad(sortedMatches);
+   }
+}
+// © 2026 agent
@@ -0,0 +1,170 @@
+/*
+ *    Class Name: TennisDatabaseParser
+ *    Interface:  N/A
+ *    Package:    TennisDatabase
+ *    Purpose:    Parses database file bytes into TennisDatabaseRecords without Scanner or regular expressions.
+ *                Lines end with LF or CR+LF, fields are split on '/', and numbers are parsed straight from the bytes.
+ *    Developer:  agent
+ *    Modified:   10/18/2026
+ */
+
+package TennisDatabase;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+
+class TennisDatabaseParser {
+   private static final byte SLASH = '/', LF = '\n', CR = '\r';
+   private static final byte[] PLAYER = { 'P', 'L', 'A', 'Y', 'E', 'R' }, MATCH = { 'M', 'A', 'T', 'C', 'H' };
+   private static final int MAX_FIELDS = 5; // Fields following the line type token
+   private static final long NAN = Long.MIN_VALUE; // Returned by parseInt when bytes are not a valid int
+
+   private ArrayList<TennisDatabaseRecord> records; // Output. Records are appended in line order
+   private byte[] line = new byte[256]; // Bytes of the line being parsed. Grows for longer lines
+   private int[] fieldStart = new int[MAX_FIELDS], fieldEnd = new int[MAX_FIELDS];
+   private int numFields;
+
+   // Constructor - creates a parser appending to the passed list
+   public TennisDatabaseParser( ArrayList<TennisDatabaseRecord> records ) { this.records = records; }
+
+   // Desc.:   Parses all lines between the buffer's position and limit. Buffer must start at a line boundary.
+   // Input:   ByteBuffer holding database file contents
+   // Output:  One record appended per PLAYER or MATCH line. Other lines are ignored
+   public void parse( ByteBuffer buf ) {
+      ByteBuffer view = buf.duplicate(); // Used for bulk copies. Leaves caller's buffer position untouched
+      int pos = buf.position();
+      int limit = buf.limit();
+
+      while (pos < limit) {
+         int eol = pos;
+         while (eol < limit && buf.get(eol) != LF) { eol++; } // Find end of line
+         int end = eol;
+         if (end > pos && buf.get(end - 1) == CR) { end--; } // Accept CR+LF line endings
+
+         int len = end - pos;
+         if (len > 0) {
+            if (len > this.line.length) { this.line = new byte[Math.max(len, this.line.length << 1)]; }
+            view.position(pos);
+            view.get(this.line, 0, len);
+            this.parseLine(len);
+         }
+         pos = eol + 1;
+      }
+   }
+
+   // Desc.:   Splits the current line into tokens and creates its record. Like the previous Scanner based
+   //          parser, a single leading or trailing '/' does not produce an empty token.
+   // Input:   Length of the line in the line buffer
+   private void parseLine( int len ) {
+      int p = 0, e = len;
+      if (this.line[0] == SLASH) { p = 1; }
+      if (e > p && this.line[e - 1] == SLASH) { e--; }
+      if (p >= e) { return; } // No tokens
+
+      int t = p;
+      while (t < e && this.line[t] != SLASH) { t++; } // End of line type token
+
+      boolean isPlayer = this.tokenEquals(p, t, PLAYER);
+      if (!isPlayer && !this.tokenEquals(p, t, MATCH)) { return; } // Not a PLAYER or MATCH line. Ignore
+
+      // Locate up to five fields following the line type token
+      this.numFields = 0;
+      for (int f = t + 1; f <= e && this.numFields < MAX_FIELDS; ) {
+         int fe = f;
+         while (fe < e && this.line[fe] != SLASH) { fe++; }
+         this.fieldStart[this.numFields] = f;
+         this.fieldEnd[this.numFields] = fe;
+         this.numFields++;
+         f = fe + 1;
+      }
+
+      this.records.add(isPlayer ? this.parsePlayer() : this.parseMatch());
+   }
+
+   // Desc.:   Creates the record for a player entry
+   // Output:  PLAYER record, or INVALID record describing why the entry is skipped
+   private TennisDatabaseRecord parsePlayer() {
+      long year = (this.numFields > 3) ? this.parseInt(this.fieldStart[3], this.fieldEnd[3]) : NAN;
+      if (year == NAN) { // Birth year entry is not a number. Do not create player.
+         return TennisDatabaseRecord.invalid("Error parsing player entry. Birth year entry is NAN: " + this.field(3) + "\r\nSkipping player entry.");
+      }
+      if (this.numFields < 5) { // Entry does not contain enough fields to create player
+         return TennisDatabaseRecord.invalid("Error parsing player entry. Invalid number of fields provided.\r\nSkipping player entry.");
+      }
+      return TennisDatabaseRecord.player(this.field(0), this.field(1), this.field(2), (int) year, this.field(4));
+   }
+
+   // Desc.:   Creates the record for a match entry. The date (YYYYMMDD) is parsed here, the remaining fields
+   //          are validated when the match is created
+   // Output:  MATCH record, or INVALID record describing why the entry is skipped
+   private TennisDatabaseRecord parseMatch() {
+      if (this.numFields < 3) { // Entry does not contain enough fields to create match.
+         return TennisDatabaseRecord.invalid("Error parsing match entry. Invalid number of fields provided.\r\nSkipping match entry.");
+      }
+
+      // Year, month, day are parsed in turn. Check each part is present before parsing it, as the old parser did
+      int s = this.fieldStart[2];
+      int dateLen = this.fieldEnd[2] - s;
+      long year = NAN, month = NAN, day = NAN;
+      boolean tooShort = (dateLen < 4);
+      if (!tooShort && (year = this.parseInt(s, s + 4)) != NAN) {
+         tooShort = (dateLen < 6);
+         if (!tooShort && (month = this.parseInt(s + 4, s + 6)) != NAN) {
+            tooShort = (dateLen < 8);
+            if (!tooShort) { day = this.parseInt(s + 6, s + 8); }
+         }
+      }
+
+      if (tooShort) { // Date field is too short to contain valid formatted date. Do not enter match.
+         return TennisDatabaseRecord.invalid("Error parsing match entry. Match date entry is too short to be valid: " + this.field(2) + "\r\nSkipping match entry.");
+      }
+      if (year == NAN || month == NAN || day == NAN) { // Date entry is not a number. Do not enter match.
+         return TennisDatabaseRecord.invalid("Error parsing match entry. Match date entry is NAN: " + this.field(2) + "\r\nSkipping match entry.");
+      }
+      return TennisDatabaseRecord.match(this.field(0), this.field(1), (int) year, (int) month, (int) day, this.field(3), this.field(4));
+   }
+
+   // Desc.:   Parses a base 10 int (optional sign) from the line buffer, accepting the same input as Integer.parseInt
+   // Input:   Byte range of the number
+   // Output:  Parsed value, or NAN if the range is not a valid int
+   private long parseInt( int from, int to ) {
+      if (from >= to) { return NAN; }
+      boolean negative = (this.line[from] == '-');
+      if (negative || this.line[from] == '+') {
+         if (++from == to) { return NAN; } // Sign without digits
+      }
+
+      long value = 0;
+      for (int i = from; i < to; i++) {
+         int digit = this.line[i] - '0';
+         if (digit < 0 || digit > 9) { return NAN; }
+         value = (value * 10) + digit;
+         if (value > 2147483648L) { return NAN; } // Out of int range
+      }
+      if (negative) { return -value; }
+      return (value > Integer.MAX_VALUE) ? NAN : value;
+   }
+
+   // Desc.:   Case insensitive (ASCII) comparison of a token with a line type keyword
+   // Input:   Byte range of the token and the uppercase keyword
+   // Output:  Boolean indicating if the token is the keyword
+   private boolean tokenEquals( int from, int to, byte[] keyword ) {
+      if (to - from != keyword.length) { return false; }
+      for (int i = 0; i < keyword.length; i++) {
+         int c = this.line[from + i];
+         if (c >= 'a' && c <= 'z') { c -= ('a' - 'A'); }
+         if (c != keyword[i]) { return false; }
+      }
+      return true;
+   }
+
+   // Desc.:   Decodes a field of the current line
+   // Input:   Field number (0 - 4)
+   // Output:  Field as a String. Null if the line doesn't have that many fields
+   private String field( int i ) {
+      if (i >= this.numFields) { return null; }
+      return new String(this.line, this.fieldStart[i], this.fieldEnd[i] - this.fieldStart[i], StandardCharsets.UTF_8);
+   }
+}
+// © 2026 agent
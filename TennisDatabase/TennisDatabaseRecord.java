@@ -0,0 +1,78 @@
+/*
+ *    Class Name: TennisDatabaseRecord
+ *    Interface:  N/A
+ *    Package:    TennisDatabase
+ *    Purpose:    Holds one parsed line of a database file (player entry, match entry, or an invalid entry
+ *                with the message to report for it) until the loader builds the containers.
+ *    Developer:  agent
+ *    Modified:   10/18/2026
+ */
+
+package TennisDatabase;
+
+class TennisDatabaseRecord {
+   public static final int PLAYER = 0, MATCH = 1, INVALID = 2; // Record types
+
+   private int type;
+   private String id1, id2;                      // Player id (PLAYER) or ids of both players (MATCH)
+   private String firstName, lastName, country;  // PLAYER fields
+   private String tournament, score;             // MATCH fields
+   private int year, month, day;                 // Birth year (PLAYER) or match date (MATCH)
+   private String message;                       // INVALID: message to report when the record is processed
+
+   /* Constructors */
+   private TennisDatabaseRecord(int type) { this.type = type; }
+
+   // Desc.:   Creates a player entry record
+   // Input:   All the data required for a tennis player
+   // Output:  PLAYER record
+   public static TennisDatabaseRecord player( String id, String firstName, String lastName, int year, String country ) {
+      TennisDatabaseRecord r = new TennisDatabaseRecord(PLAYER);
+      r.id1 = id;
+      r.firstName = firstName;
+      r.lastName = lastName;
+      r.year = year;
+      r.country = country;
+      return r;
+   }
+
+   // Desc.:   Creates a match entry record
+   // Input:   All the data required for a tennis match
+   // Output:  MATCH record
+   public static TennisDatabaseRecord match( String idPlayer1, String idPlayer2, int year, int month, int day, String tournament, String score ) {
+      TennisDatabaseRecord r = new TennisDatabaseRecord(MATCH);
+      r.id1 = idPlayer1;
+      r.id2 = idPlayer2;
+      r.year = year;
+      r.month = month;
+      r.day = day;
+      r.tournament = tournament;
+      r.score = score;
+      return r;
+   }
+
+   // Desc.:   Creates a record for an entry that could not be parsed
+   // Input:   Message to report for the entry
+   // Output:  INVALID record
+   public static TennisDatabaseRecord invalid( String message ) {
+      TennisDatabaseRecord r = new TennisDatabaseRecord(INVALID);
+      r.message = message;
+      return r;
+   }
+
+   /* Getters */
+   public int getType() { return this.type; }
+   public String getId() { return this.id1; }
+   public String getPlayer1Id() { return this.id1; }
+   public String getPlayer2Id() { return this.id2; }
+   public String getFirstName() { return this.firstName; }
+   public String getLastName() { return this.lastName; }
+   public String getCountry() { return this.country; }
+   public String getTournament() { return this.tournament; }
+   public String getScore() { return this.score; }
+   public int getYear() { return this.year; }
+   public int getMonth() { return this.month; }
+   public int getDay() { return this.day; }
+   public String getMessage() { return this.message; }
+}
+// © 2026 agent
@@ -14,4 +14,4 @@ public class TennisDatabaseRuntimeException extends java.lang.RuntimeException {
    // Input: Description of the runtime error.
    public TennisDatabaseRuntimeException( String s ) { super(s); }
 }
-// © 2018 Giuseppe Turini
\ No newline at end of file
+// © 2018 Giuseppe Turini
@@ -0,0 +1,443 @@
+/*
+ *    Class Name: TennisDatabaseSnapshot
+ *    Interface:  N/A
+ *    Package:    TennisDatabase
+ *    Purpose:    Versioned binary snapshot of a database. Rows are fixed width so the file can be read in place:
+ *                   Header         MAGIC, VERSION, string/player/match/reference counts, string and score data sizes,
+ *                                  number of players in the players container
+ *                   String table   (stringCount + 1) offsets into the string data
+ *                   Player rows    id, first name, last name, birth year, country, wins, losses, first reference,
+ *                                  number of references. Players of the container come first, sorted by id. They
+ *                                  are followed by deleted players that still take part in matches
+ *                   Match rows     player 1 row, player 2 row, date (YYYYMMDD), tournament, score, winner.
+ *                                  In container order (newest first)
+ *                   References     Match rows of every player, in the order of the player's matches list
+ *                   String data    UTF-8 bytes of every distinct string (ids, names, countries, tournaments)
+ *                   Score data     Per score: number of sets, then the games won by each player in every set
+ *                Strings are stored once and referenced by their number. Scores that don't fit the game byte encoding
+ *                are stored as strings instead (score field = -(string number + 1)). All numbers are big endian.
+ *    Developer:  agent
+ *    Modified:   10/18/2026
+ */
+
+package TennisDatabase;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+
+class TennisDatabaseSnapshot {
+   public static final int MAGIC = 0x54444253; // "TDBS"
+   public static final int VERSION = 1;
+
+   private static final int HEADER_SIZE = 9 * 4;
+   private static final int PLAYER_ROW_SIZE = 9 * 4;
+   private static final int MATCH_ROW_SIZE = 6 * 4;
+
+   private ByteBuffer buf; // Whole snapshot file (mapped or in memory)
+   private int stringCount, playerCount, treePlayerCount, matchCount, refCount;
+   private int stringTable, playerRows, matchRows, refs, stringData, scoreData; // Section offsets
+
+   // Constructor - wraps the bytes of a snapshot file. Use open() or load() to read a snapshot
+   private TennisDatabaseSnapshot( ByteBuffer buf ) { this.buf = buf; }
+
+   /* Writing */
+
+   // Desc.:   Writes the containers to a snapshot file
+   // Input:   Containers to save and the file to write (overwritten if it exists)
+   // Output:  Number of bytes and records (players and matches) written. Throws exception if the file can't be written
+   public static TennisDatabaseExportStats write( TennisPlayersContainer tpc, TennisMatchesContainer tmc, File file )
+      throws TennisDatabaseRuntimeException {
+      return copy(tpc, tmc).writeTo(file);
+   }
+
+   // Desc.:   Copies what a snapshot needs from the containers: the fields and match lists of the players and the
+   //          matches. Stored matches never change, so only their references are copied. The copy can be written
+   //          while the containers keep changing
+   // Input:   Containers to save
+   // Output:  Copy of the containers, ready to be written
+   public static Copy copy( TennisPlayersContainer tpc, TennisMatchesContainer tmc ) {
+      Copy c = new Copy();
+      c.players = new ArrayList<TennisPlayer>();
+      if (!tpc.isEmpty()) { // Players sorted by id
+         TennisPlayersContainerIterator iter = new TennisPlayersContainerIterator(tpc);
+         iter.setInorder();
+         while (iter.hasNext()) {
+            TennisPlayerNode node = iter.next();
+            TennisPlayer p = node.getPlayer();
+            c.players.add(p);
+            c.playerStrings.add(new String[] { p.getId(), p.getFirstName(), p.getLastName(), p.getCountry() });
+            c.playerInts.add(new int[] { p.getBirthYear(), p.getWinLoss().getWins(), p.getWinLoss().getLosses() });
+            c.playerMatches.add(node.getMatchesList().toArray());
+         }
+      }
+      c.matches = tmc.toArray(); // Container order
+      return c;
+   }
+
+   // Players and matches of a database, copied so they can be written without holding on to the containers
+   static final class Copy {
+      private ArrayList<TennisPlayer> players; // Players of the container, sorted by id
+      private ArrayList<String[]> playerStrings = new ArrayList<String[]>(); // Id, first name, last name, country
+      private ArrayList<int[]> playerInts = new ArrayList<int[]>(); // Birth year, wins, losses
+      private ArrayList<TennisMatch[]> playerMatches = new ArrayList<TennisMatch[]>();
+      private TennisMatch[] matches;
+
+      private Copy() {}
+
+      // Desc.:   Encodes the rows and writes the snapshot to a file
+      // Input:   File to write (overwritten if it exists)
+      // Output:  Number of bytes and records (players and matches) written. Throws exception if the file can't be written
+      //          or the database is too large for the snapshot format
+      public TennisDatabaseExportStats writeTo( File file )
+         throws TennisDatabaseRuntimeException {
+         // Players and matches are referenced by row number
+         int treePlayers = this.players.size();
+         IdentityHashMap<TennisPlayer, Integer> playerRow = new IdentityHashMap<TennisPlayer, Integer>();
+         for (int i = 0; i < treePlayers; i++) { playerRow.put(this.players.get(i), i); }
+
+         IdentityHashMap<TennisMatch, Integer> matchRow = new IdentityHashMap<TennisMatch, Integer>();
+         for (int i = 0; i < this.matches.length; i++) {
+            matchRow.put(this.matches[i], i);
+            this.addDeletedPlayer(playerRow, this.matches[i].getPlayer1()); // Deleting a player keeps its matches
+            this.addDeletedPlayer(playerRow, this.matches[i].getPlayer2());
+         }
+
+         // Encode all rows in memory first, collecting strings and scores on the way
+         HashMap<String, Integer> stringIds = new HashMap<String, Integer>();
+         ArrayList<byte[]> strings = new ArrayList<byte[]>();
+         HashMap<String, Integer> scoreIds = new HashMap<String, Integer>();
+         ByteArrayOutputStream scores = new ByteArrayOutputStream();
+
+         int playerCount = this.players.size();
+         int[] rowInts = new int[playerCount * 9];
+         int refCount = 0;
+         for (int i = 0; i < playerCount; i++) {
+            String[] str = this.playerStrings.get(i);
+            int[] ints = this.playerInts.get(i);
+            int r = i * 9;
+            rowInts[r] = stringId(stringIds, strings, str[0]);
+            rowInts[r + 1] = stringId(stringIds, strings, str[1]);
+            rowInts[r + 2] = stringId(stringIds, strings, str[2]);
+            rowInts[r + 3] = ints[0];
+            rowInts[r + 4] = stringId(stringIds, strings, str[3]);
+            rowInts[r + 5] = ints[1];
+            rowInts[r + 6] = ints[2];
+            rowInts[r + 7] = refCount;
+            rowInts[r + 8] = this.playerMatches.get(i).length;
+            refCount += this.playerMatches.get(i).length;
+         }
+
+         int[] matchInts = new int[this.matches.length * 6];
+         for (int i = 0; i < this.matches.length; i++) {
+            TennisMatch m = this.matches[i];
+            int r = i * 6;
+            matchInts[r] = playerRow.get(m.getPlayer1());
+            matchInts[r + 1] = playerRow.get(m.getPlayer2());
+            matchInts[r + 2] = MatchDate.packDate(m.getDateYear(), m.getDateMonth(), m.getDateDay());
+            matchInts[r + 3] = stringId(stringIds, strings, m.getTournament());
+            matchInts[r + 4] = scoreId(scoreIds, scores, stringIds, strings, m.getScore());
+            matchInts[r + 5] = m.getWinner();
+         }
+
+         long stringBytes = 0;
+         for (byte[] s : strings) { stringBytes += s.length; }
+         long total = (long) HEADER_SIZE + 4L * (strings.size() + 1) + 4L * rowInts.length + 4L * matchInts.length + 4L * refCount + stringBytes + scores.size();
+         if (total > Integer.MAX_VALUE) { throw new TennisDatabaseRuntimeException("Error saving snapshot! Database is too large for the snapshot format."); }
+
+         try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), 1 << 16))) {
+            // Header
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(strings.size());
+            out.writeInt(playerCount);
+            out.writeInt(this.matches.length);
+            out.writeInt(refCount);
+            out.writeInt((int) stringBytes);
+            out.writeInt(scores.size());
+            out.writeInt(treePlayers);
+
+            // String table
+            int offset = 0;
+            out.writeInt(offset);
+            for (byte[] s : strings) {
+               offset += s.length;
+               out.writeInt(offset);
+            }
+
+            // Rows
+            for (int v : rowInts) { out.writeInt(v); }
+            for (int v : matchInts) { out.writeInt(v); }
+            for (TennisMatch[] pm : this.playerMatches) {
+               for (TennisMatch m : pm) { out.writeInt(matchRow.get(m)); }
+            }
+
+            // Variable length data
+            for (byte[] s : strings) { out.write(s); }
+            scores.writeTo(out);
+         } catch (IOException e) {
+            throw new TennisDatabaseRuntimeException("Error saving snapshot! " + e.getMessage());
+         }
+         return new TennisDatabaseExportStats(total, (long) playerCount + this.matches.length);
+      }
+
+      // Desc.:   Adds a row for a player that is no longer in the container but still takes part in a match. Its
+      //          fields can't change anymore, so they are read now
+      private void addDeletedPlayer( IdentityHashMap<TennisPlayer, Integer> playerRow, TennisPlayer p ) {
+         if (!playerRow.containsKey(p)) {
+            playerRow.put(p, this.players.size());
+            this.players.add(p);
+            this.playerStrings.add(new String[] { p.getId(), p.getFirstName(), p.getLastName(), p.getCountry() });
+            this.playerInts.add(new int[] { p.getBirthYear(), p.getWinLoss().getWins(), p.getWinLoss().getLosses() });
+            this.playerMatches.add(new TennisMatch[0]);
+         }
+      }
+   }
+
+   // Desc.:   Gets the number of a string in the dictionary, adding it if new
+   private static int stringId( HashMap<String, Integer> ids, ArrayList<byte[]> strings, String s ) {
+      Integer id = ids.get(s);
+      if (id == null) {
+         id = strings.size();
+         ids.put(s, id);
+         strings.add(s.getBytes(StandardCharsets.UTF_8));
+      }
+      return id;
+   }
+
+   // Desc.:   Gets the score field of a match. Equal scores share their bytes
+   // Output:  Offset of the encoded score, or -(string number + 1) if the score can't be encoded as game bytes
+   private static int scoreId( HashMap<String, Integer> ids, ByteArrayOutputStream scores,
+                               HashMap<String, Integer> stringIds, ArrayList<byte[]> strings, String score ) {
+      Integer id = ids.get(score);
+      if (id == null) {
+         byte[] encoded = TennisMatch.encodeScore(score);
+         if (encoded == null) {
+            id = -(stringId(stringIds, strings, score) + 1);
+         } else {
+            id = scores.size();
+            scores.write(encoded, 0, encoded.length);
+         }
+         ids.put(score, id);
+      }
+      return id;
+   }
+
+   /* Reading */
+
+   // Desc.:   Maps a snapshot file and checks its header. The file stays mapped as long as the snapshot is used, so
+   //          it must not be replaced meanwhile (which fails on some systems)
+   // Input:   Snapshot file
+   // Output:  Snapshot ready for reading. Throws exception if the file does not exist, can't be read, or is not
+   //          a valid snapshot of a supported version
+   public static TennisDatabaseSnapshot open( File file )
+      throws FileNotFoundException, TennisDatabaseException {
+      return read(file, true);
+   }
+
+   // Desc.:   Reads a whole snapshot file into memory and checks its header. Nothing stays mapped, so the file can
+   //          be replaced while the snapshot is used
+   // Input:   Snapshot file
+   // Output:  Snapshot ready for reading. Throws exception if the file does not exist, can't be read, or is not
+   //          a valid snapshot of a supported version
+   public static TennisDatabaseSnapshot load( File file )
+      throws FileNotFoundException, TennisDatabaseException {
+      return read(file, false);
+   }
+
+   // Desc.:   Maps or reads a snapshot file and checks its header
+   private static TennisDatabaseSnapshot read( File file, boolean mapped )
+      throws FileNotFoundException, TennisDatabaseException {
+      ByteBuffer buf;
+      try (FileInputStream in = new FileInputStream(file); FileChannel channel = in.getChannel()) {
+         if (channel.size() > Integer.MAX_VALUE) { throw new TennisDatabaseException("Error loading snapshot! File is too large: " + file.getPath()); }
+         if (mapped) {
+            buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()); // Mapping stays valid after close
+         } else {
+            buf = ByteBuffer.allocate((int) channel.size());
+            while (buf.hasRemaining() && channel.read(buf) >= 0) { }
+            if (buf.hasRemaining()) { throw new TennisDatabaseException("Error loading snapshot! File changed while reading: " + file.getPath()); }
+            buf.clear();
+         }
+      } catch (FileNotFoundException e) {
+         throw e;
+      } catch (IOException e) {
+         throw new TennisDatabaseException("Error loading snapshot! " + e.getMessage());
+      }
+
+      TennisDatabaseSnapshot snap = new TennisDatabaseSnapshot(buf);
+      snap.readHeader();
+      return snap;
+   }
+
+   // Desc.:   Reads the header and computes the section offsets
+   // Output:  Throws exception if the header is invalid or doesn't match the file size
+   private void readHeader()
+      throws TennisDatabaseException {
+      if (buf.capacity() < HEADER_SIZE || buf.getInt(0) != MAGIC) { throw new TennisDatabaseException("Error loading snapshot! File is not a database snapshot."); }
+      int version = buf.getInt(4);
+      if (version != VERSION) { throw new TennisDatabaseException("Error loading snapshot! Unsupported snapshot version: " + version); }
+
+      stringCount = buf.getInt(8);
+      playerCount = buf.getInt(12);
+      matchCount = buf.getInt(16);
+      refCount = buf.getInt(20);
+      int stringBytes = buf.getInt(24);
+      int scoreBytes = buf.getInt(28);
+      treePlayerCount = buf.getInt(32);
+      if ((stringCount | playerCount | matchCount | refCount | stringBytes | scoreBytes | treePlayerCount) < 0 || treePlayerCount > playerCount) {
+         throw new TennisDatabaseException("Error loading snapshot! Header is corrupt.");
+      }
+
+      long offset = HEADER_SIZE;
+      stringTable = (int) offset;
+      offset += 4L * (stringCount + 1);
+      playerRows = (int) Math.min(offset, Integer.MAX_VALUE);
+      offset += (long) PLAYER_ROW_SIZE * playerCount;
+      matchRows = (int) Math.min(offset, Integer.MAX_VALUE);
+      offset += (long) MATCH_ROW_SIZE * matchCount;
+      refs = (int) Math.min(offset, Integer.MAX_VALUE);
+      offset += 4L * refCount;
+      stringData = (int) Math.min(offset, Integer.MAX_VALUE);
+      offset += stringBytes;
+      scoreData = (int) Math.min(offset, Integer.MAX_VALUE);
+      offset += scoreBytes;
+      if (offset != buf.capacity()) { throw new TennisDatabaseException("Error loading snapshot! File size does not match header (truncated or corrupt file)."); }
+      if (buf.getInt(stringTable) != 0 || buf.getInt(stringTable + (4 * stringCount)) != stringBytes) { throw new TennisDatabaseException("Error loading snapshot! String table is corrupt."); }
+   }
+
+   /* Getters */
+   public int getPlayerCount() { return playerCount; }
+   public int getTreePlayerCount() { return treePlayerCount; }
+   public int getMatchCount() { return matchCount; }
+
+   // Desc.:   Decodes a string of the dictionary
+   // Input:   String number
+   // Output:  String. Throws exception if the number or its offsets are out of range
+   public String getString( int i )
+      throws TennisDatabaseRuntimeException {
+      check(i, stringCount, "string");
+      int start = buf.getInt(stringTable + (4 * i));
+      int end = buf.getInt(stringTable + (4 * (i + 1)));
+      if (start < 0 || end < start || end > scoreData - stringData) { throw corrupt("string offsets"); }
+
+      byte[] bytes = new byte[end - start];
+      ByteBuffer view = buf.duplicate();
+      view.position(stringData + start);
+      view.get(bytes);
+      return new String(bytes, StandardCharsets.UTF_8);
+   }
+
+   // Desc.:   Reads a field of a player row
+   // Input:   Player row and field number (0 - 8, in the order listed at the top of this file)
+   public int getPlayerField( int row, int field ) {
+      check(row, playerCount, "player");
+      return buf.getInt(playerRows + (row * PLAYER_ROW_SIZE) + (field * 4));
+   }
+
+   // Desc.:   Reads a field of a match row
+   // Input:   Match row and field number (0 - 5, in the order listed at the top of this file)
+   public int getMatchField( int row, int field ) {
+      check(row, matchCount, "match");
+      return buf.getInt(matchRows + (row * MATCH_ROW_SIZE) + (field * 4));
+   }
+
+   // Desc.:   Reads a match reference of a player
+   // Input:   Player row and position within the player's matches
+   // Output:  Match row
+   public int getPlayerMatch( int row, int i ) {
+      int first = getPlayerField(row, 7);
+      int count = getPlayerField(row, 8);
+      check(i, count, "player match");
+      if (first < 0 || (long) first + count > refCount) { throw corrupt("player match references"); }
+      return buf.getInt(refs + (4 * (first + i)));
+   }
+
+   // Desc.:   Creates the TennisPlayer of a player row, including its win/loss record
+   // Input:   Player row and the dictionary sharing the countries of the database
+   public TennisPlayer getPlayer( int row, TennisStringDictionary countryNames )
+      throws TennisDatabaseRuntimeException {
+      TennisPlayer p = new TennisPlayer(getString(getPlayerField(row, 0)), getString(getPlayerField(row, 1)), getString(getPlayerField(row, 2)),
+                                        getPlayerField(row, 3), countryNames.canonicalize(getString(getPlayerField(row, 4))));
+      p.setWinLoss(new WinLossRec(getPlayerField(row, 5), getPlayerField(row, 6)));
+      return p;
+   }
+
+   // Desc.:   Creates the TennisMatch of a match row without parsing its score
+   // Input:   Match row, both (already created) players of the match and the dictionary sharing the tournaments
+   //          of the database
+   public TennisMatch getMatch( int row, TennisPlayer p1, TennisPlayer p2, TennisStringDictionary tournamentNames )
+      throws TennisDatabaseRuntimeException {
+      String tournament = tournamentNames.canonicalize(getString(getMatchField(row, 3)));
+      int winner = getMatchField(row, 5);
+      if (winner != 1 && winner != 2) { throw corrupt("match winner"); }
+      
+      int score = getMatchField(row, 4);
+      if (score < 0) { // Stored as a string
+         return new TennisMatch(p1, p2, getMatchField(row, 2), tournament, null, getString(-(score + 1)), winner);
+      }
+      
+      int scoreBytes = buf.capacity() - scoreData;
+      if (score >= scoreBytes) { throw corrupt("score offset"); }
+      int sets = buf.get(scoreData + score);
+      if (sets <= 0 || score + 1 + (2 * sets) > scoreBytes) { throw corrupt("score"); }
+      byte[] games = new byte[1 + (2 * sets)]; // Same encoding as TennisMatch
+      ByteBuffer view = buf.duplicate();
+      view.position(scoreData + score);
+      view.get(games);
+      return new TennisMatch(p1, p2, getMatchField(row, 2), tournament, games, null, winner);
+   }
+
+   // Desc.:   Rebuilds the containers from the snapshot. Rows are already in container order, so nothing is
+   //          sorted and no score is parsed
+   // Input:   Empty containers to fill and the dictionaries sharing the tournaments and countries of the database
+   // Output:  Throws exception if the snapshot contents are inconsistent
+   public void restore( TennisPlayersContainer tpc, TennisMatchesContainer tmc, TennisStringDictionary tournamentNames, TennisStringDictionary countryNames )
+      throws TennisDatabaseException {
+      try {
+         TennisPlayer[] players = new TennisPlayer[playerCount];
+         for (int i = 0; i < playerCount; i++) {
+            players[i] = getPlayer(i, countryNames);
+            if (i > 0 && i < treePlayerCount && players[i - 1].getId().compareTo(players[i].getId()) >= 0) { throw corrupt("player order"); }
+         }
+         tpc.bulkLoad(java.util.Arrays.copyOf(players, treePlayerCount));
+
+         TennisMatch[] matches = new TennisMatch[matchCount];
+         for (int i = 0; i < matchCount; i++) {
+            int p1 = getMatchField(i, 0), p2 = getMatchField(i, 1);
+            check(p1, playerCount, "player");
+            check(p2, playerCount, "player");
+            matches[i] = getMatch(i, players[p1], players[p2], tournamentNames);
+         }
+         tmc.bulkLoad(matches);
+
+         for (int i = 0; i < treePlayerCount; i++) {
+            TennisMatch[] pm = new TennisMatch[getPlayerField(i, 8)];
+            for (int j = 0; j < pm.length; j++) {
+               int m = getPlayerMatch(i, j);
+               check(m, matchCount, "match");
+               pm[j] = matches[m];
+            }
+            tpc.retrievePlayer(tpc, players[i].getKey()).getMatchesList().bulkLoad(pm);
+         }
+      } catch (TennisDatabaseRuntimeException e) {
+         throw new TennisDatabaseException(e.getMessage());
+      }
+   }
+
+   // Desc.:   Checks that a row or string number is in range
+   // Output:  Throws exception if it isn't
+   private static void check( int i, int count, String what ) {
+      if (i < 0 || i >= count) { throw corrupt(what + " number " + i); }
+   }
+
+   // Desc.:   Creates the exception for inconsistent snapshot contents
+   private static TennisDatabaseRuntimeException corrupt( String what ) {
+      return new TennisDatabaseRuntimeException("Error reading snapshot! Snapshot is corrupt (invalid " + what + ").");
+   }
+}
+// © 2026 agent
@@ -0,0 +1,376 @@
+/*
+ *    Class Name: TennisDatabaseSnapshotView
+ *    Interface:  N/A
+ *    Package:    TennisDatabase
+ *    Purpose:    Read-only database answering lookups directly from a memory-mapped snapshot. Players and matches
+ *                are only created when a row is actually returned, and are cached so a row always maps to the
+ *                same object.
+ *    Developer:  agent
+ *    Modified:   10/18/2026
+ */
+
+package TennisDatabase;
+
+import javafx.collections.ObservableList;
+import javafx.collections.FXCollections;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.function.IntToLongFunction;
+
+class TennisDatabaseSnapshotView {
+   private TennisDatabaseSnapshot snapshot;
+   private TennisPlayer[] players; // Materialized players by row. Null until first requested
+   private TennisMatch[] matches; // Materialized matches by row. Null until first requested
+   private HashMap<String, int[]> tournaments; // Match rows (newest first) of each tournament. Null until first used
+   private HashMap<Long, int[]> rivalries; // Match rows (newest first) of each pair of player rows. Null until first used
+   private TennisPlayerAttributeIndex attributes; // Birth year, country and name indexes of the players. Null until first used
+   private TennisLeaderboard.Cache leaderboards = new TennisLeaderboard.Cache(); // Rankings of the players by win percentage of each minimum in use
+   private TennisStringDictionary tournamentNames, countryNames; // Dictionaries of the database the view belongs to
+
+   // Constructor - creates a view of an opened snapshot
+   // Input:   Opened snapshot and the dictionaries sharing the tournaments and countries of the database
+   public TennisDatabaseSnapshotView( TennisDatabaseSnapshot snapshot, TennisStringDictionary tournamentNames, TennisStringDictionary countryNames ) {
+      this.snapshot = snapshot;
+      this.tournamentNames = tournamentNames;
+      this.countryNames = countryNames;
+      this.players = new TennisPlayer[snapshot.getPlayerCount()];
+      this.matches = new TennisMatch[snapshot.getMatchCount()];
+   }
+
+   /* Getters */
+   public TennisDatabaseSnapshot getSnapshot() { return this.snapshot; }
+
+   // Desc.:   Gets the player of a row, creating it on first use
+   // Input:   Player row
+   // Output:  TennisPlayer object (reference)
+   public synchronized TennisPlayer getPlayer( int row ) {
+      TennisPlayer p = this.players[row];
+      if (p == null) {
+         p = this.snapshot.getPlayer(row, this.countryNames);
+         this.players[row] = p;
+      }
+      return p;
+   }
+
+   // Desc.:   Gets the match of a row, creating it (and its players) on first use
+   // Input:   Match row
+   // Output:  TennisMatch object (reference)
+   public synchronized TennisMatch getMatch( int row ) {
+      TennisMatch m = this.matches[row];
+      if (m == null) {
+         TennisPlayer p1 = this.getPlayer(this.snapshot.getMatchField(row, 0));
+         TennisPlayer p2 = this.getPlayer(this.snapshot.getMatchField(row, 1));
+         m = this.snapshot.getMatch(row, p1, p2, this.tournamentNames);
+         this.matches[row] = m;
+      }
+      return m;
+   }
+
+   // Desc.:   Binary search for a player of the players container by id. Only the probed ids are decoded
+   // Input:   Key of the id of the player
+   // Output:  Player row, or (-(insertion row) - 1) if there is no such player, like Arrays.binarySearch
+   public int findPlayer( PlayerKey playerKey ) {
+      String key = playerKey.getId();
+      int lo = 0, hi = this.snapshot.getTreePlayerCount() - 1;
+      while (lo <= hi) {
+         int mid = (lo + hi) >>> 1;
+         int comparison = this.snapshot.getString(this.snapshot.getPlayerField(mid, 0)).compareTo(key);
+         if (comparison < 0) { lo = mid + 1; }
+         else if (comparison > 0) { hi = mid - 1; }
+         else { return mid; }
+      }
+      return -(lo + 1);
+   }
+
+   // Desc.:   Looks up a player by id
+   // Input:   Key of the id of the player
+   // Output:  TennisPlayer object (reference), or null if the player does not exist
+   public TennisPlayer retrievePlayer( PlayerKey key ) {
+      int row = this.findPlayer(key);
+      return (row < 0) ? null : this.getPlayer(row);
+   }
+
+   // Desc.:   List of all players sorted by id. Players are created as the list is read
+   // Output:  ObservableList of TennisPlayer objects. Throws an exception if there are no players
+   public ObservableList<TennisPlayer> getPlayersList()
+      throws TennisDatabaseRuntimeException {
+      final int count = this.snapshot.getTreePlayerCount();
+      if (count == 0) { throw new TennisDatabaseRuntimeException("Error! Tennis Player's Container is empty!"); }
+      return FXCollections.observableList(new AbstractList<TennisPlayer>() {
+         public TennisPlayer get( int i ) { checkIndex(i, count); return getPlayer(i); }
+         public int size() { return count; }
+      });
+   }
+
+   // Desc.:   Gets the player at a position of the id sequence. Rows of the players container are sorted by id
+   // Input:   Position of the player, 0 being the first id
+   // Output:  TennisPlayer object (reference). Throws an exception if the position is out of range
+   public TennisPlayer select( int i )
+      throws TennisDatabaseRuntimeException {
+      if (i < 0 || i >= this.snapshot.getTreePlayerCount()) { throw new TennisDatabaseRuntimeException("Error selecting player! Position " + i + " is out of range."); }
+      return this.getPlayer(i);
+   }
+
+   // Desc.:   Gets the position of an id in the id sequence
+   // Input:   Key of the id
+   // Output:  Number of players with a smaller id
+   public int rank( PlayerKey key ) {
+      int row = this.findPlayer(key);
+      return (row < 0) ? -(row + 1) : row;
+   }
+
+   // Desc.:   One page of the players sorted by id. Players are created as the page is read
+   // Input:   Position of the first player of the page and maximum number of players
+   // Output:  ObservableList of at most limit TennisPlayers. Throws an exception if the offset or limit is negative
+   public ObservableList<TennisPlayer> getPlayersPage( final int offset, int limit )
+      throws TennisDatabaseRuntimeException {
+      if (offset < 0 || limit < 0) { throw new TennisDatabaseRuntimeException("Error getting page of players! Offset and limit can't be negative."); }
+      final int count = Math.max(0, Math.min(limit, this.snapshot.getTreePlayerCount() - offset));
+      return FXCollections.observableList(new AbstractList<TennisPlayer>() {
+         public TennisPlayer get( int i ) { checkIndex(i, count); return getPlayer(offset + i); }
+         public int size() { return count; }
+      });
+   }
+
+   // Desc.:   List of all matches sorted by date, most recent first. Matches are created as the list is read
+   // Output:  ObservableList of TennisMatch objects
+   public ObservableList<TennisMatch> getMatchesList() {
+      final int count = this.snapshot.getMatchCount();
+      return FXCollections.observableList(new AbstractList<TennisMatch>() {
+         public TennisMatch get( int i ) { checkIndex(i, count); return getMatch(i); }
+         public int size() { return count; }
+      });
+   }
+
+   // Desc.:   List of the matches of a player. Matches are created as the list is read
+   // Input:   Key of the id of the player
+   // Output:  ObservableList of TennisMatch objects. Throws an exception if player doesn't exist or has no matches
+   public ObservableList<TennisMatch> getMatchesOfPlayer( PlayerKey key )
+      throws TennisDatabaseRuntimeException {
+      final int row = this.findPlayer(key);
+      if (row < 0) { throw new TennisDatabaseRuntimeException("Error getting matches of player! Player does not exist."); }
+      final int count = this.snapshot.getPlayerField(row, 8);
+      if (count == 0) { throw new TennisDatabaseRuntimeException("Error getting all tennis matches! Player has no matches to print!"); }
+      return FXCollections.observableList(new AbstractList<TennisMatch>() {
+         public TennisMatch get( int i ) { checkIndex(i, count); return getMatch(snapshot.getPlayerMatch(row, i)); }
+         public int size() { return count; }
+      });
+   }
+
+   // Desc.:   List of the matches played between two dates. Matches are sorted newest first, so the range is
+   //          found by binary search on the date column
+   // Input:   First and last date (packed as YYYYMMDD), inclusive
+   // Output:  ObservableList of TennisMatch objects, newest first. Empty if there are none
+   public ObservableList<TennisMatch> getMatchesBetween( int from, int to ) {
+      int matchCount = this.snapshot.getMatchCount();
+      final int first = this.firstOnOrBefore(-1, matchCount, to);
+      final int count = Math.max(this.firstOnOrBefore(-1, matchCount, from - 1L) - first, 0); // Empty if from > to
+      return FXCollections.observableList(new AbstractList<TennisMatch>() {
+         public TennisMatch get( int i ) { checkIndex(i, count); return getMatch(first + i); }
+         public int size() { return count; }
+      });
+   }
+   
+   // Desc.:   List of the matches of a player played between two dates
+   // Input:   Key of the id of the player and the first and last date (packed as YYYYMMDD), inclusive
+   // Output:  ObservableList of TennisMatch objects, newest first. Throws an exception if player doesn't exist
+   public ObservableList<TennisMatch> getMatchesOfPlayerBetween( PlayerKey key, int from, int to )
+      throws TennisDatabaseRuntimeException {
+      final int row = this.findPlayer(key);
+      if (row < 0) { throw new TennisDatabaseRuntimeException("Error getting matches of player! Player does not exist."); }
+      int matchCount = this.snapshot.getPlayerField(row, 8);
+      final int first = this.firstOnOrBefore(row, matchCount, to);
+      final int count = Math.max(this.firstOnOrBefore(row, matchCount, from - 1L) - first, 0);
+      return FXCollections.observableList(new AbstractList<TennisMatch>() {
+         public TennisMatch get( int i ) { checkIndex(i, count); return getMatch(snapshot.getPlayerMatch(row, first + i)); }
+         public int size() { return count; }
+      });
+   }
+   
+   // Desc.:   Gets the tournament index, building it in one pass over the tournament column if it isn't built yet
+   // Output:  Map of tournament names to their match rows in container order
+   private synchronized HashMap<String, int[]> getTournamentIndex() {
+      if (this.tournaments == null) {
+         HashMap<Long, int[]> rowsById = this.groupMatchRows(row -> this.snapshot.getMatchField(row, 3));
+         HashMap<String, int[]> index = new HashMap<String, int[]>();
+         for (Long id : rowsById.keySet()) { index.put(this.snapshot.getString(id.intValue()), rowsById.get(id)); }
+         this.tournaments = index;
+      }
+      return this.tournaments;
+   }
+   
+   // Desc.:   Groups the match rows by a key computed from each row, in two passes (count, then fill)
+   // Input:   Function computing the key of a match row
+   // Output:  Map of keys to their match rows in container order (newest first)
+   private HashMap<Long, int[]> groupMatchRows( IntToLongFunction key ) {
+      int matchCount = this.snapshot.getMatchCount();
+      HashMap<Long, int[]> counts = new HashMap<Long, int[]>(); // Key -> { count, fill position }
+      for (int row = 0; row < matchCount; row++) {
+         int[] c = counts.get(key.applyAsLong(row));
+         if (c == null) { counts.put(key.applyAsLong(row), new int[] { 1, 0 }); }
+         else { c[0]++; }
+      }
+      
+      HashMap<Long, int[]> rows = new HashMap<Long, int[]>();
+      for (Long k : counts.keySet()) { rows.put(k, new int[counts.get(k)[0]]); }
+      for (int row = 0; row < matchCount; row++) {
+         long k = key.applyAsLong(row);
+         rows.get(k)[counts.get(k)[1]++] = row;
+      }
+      return rows;
+   }
+   
+   // Desc.:   Gets the head-to-head record of two players. The head-to-head index is built in one pass over the
+   //          match rows when first used. Win counts are computed from the (few) rows of the pair. Pairs are keyed
+   //          by player row, so matches of a deleted player never count for a new player with the same id
+   // Input:   Rows of the two players
+   // Output:  TennisHeadToHead seen from the first player. No matches if the players never met
+   public TennisHeadToHead getHeadToHead( int rowA, int rowB ) {
+      HashMap<Long, int[]> index;
+      synchronized (this) {
+         if (this.rivalries == null) {
+            this.rivalries = this.groupMatchRows(row -> pairKey(this.snapshot.getMatchField(row, 0), this.snapshot.getMatchField(row, 1)));
+         }
+         index = this.rivalries;
+      }
+      
+      int[] found = index.get(pairKey(rowA, rowB));
+      final int[] rows = (found == null) ? new int[0] : found;
+      int winsA = 0;
+      for (int row : rows) {
+         int winnerRow = this.snapshot.getMatchField(row, (this.snapshot.getMatchField(row, 5) == 1) ? 0 : 1);
+         if (winnerRow == rowA) { winsA++; }
+      }
+      
+      ObservableList<TennisMatch> matches = FXCollections.observableList(new AbstractList<TennisMatch>() {
+         public TennisMatch get( int i ) { checkIndex(i, rows.length); return getMatch(rows[i]); }
+         public int size() { return rows.length; }
+      });
+      return new TennisHeadToHead(this.snapshot.getString(this.snapshot.getPlayerField(rowA, 0)), this.snapshot.getString(this.snapshot.getPlayerField(rowB, 0)),
+                                  winsA, rows.length - winsA, matches);
+   }
+   
+   // Desc.:   Combines the rows of two players into a key that doesn't depend on their order
+   private static long pairKey( int rowA, int rowB ) {
+      return ((long) Math.min(rowA, rowB) << 32) | (Math.max(rowA, rowB) & 0xFFFFFFFFL);
+   }
+   
+   // Desc.:   List of the matches of a tournament, optionally restricted to one year
+   // Input:   Tournament name (any case), and the year or null for all years
+   // Output:  ObservableList of TennisMatch objects, newest first. Throws an exception if the tournament has no matches
+   public ObservableList<TennisMatch> getMatchesOfTournament( String tournament, Integer year )
+      throws TennisDatabaseRuntimeException {
+      final int[] rows = this.getTournamentIndex().get(tournament.toUpperCase());
+      if (rows == null) { throw new TennisDatabaseRuntimeException("Error getting matches of tournament! Tournament " + tournament.toUpperCase() + " does not exist."); }
+      
+      int first = 0, last = rows.length; // Rows are sorted newest first
+      if (year != null) {
+         first = this.firstOnOrBefore(rows, MatchDate.packDate(year, 12, 31));
+         last = this.firstOnOrBefore(rows, MatchDate.packDate(year, 1, 1) - 1L);
+      }
+      final int start = first, count = Math.max(last - first, 0);
+      return FXCollections.observableList(new AbstractList<TennisMatch>() {
+         public TennisMatch get( int i ) { checkIndex(i, count); return getMatch(rows[start + i]); }
+         public int size() { return count; }
+      });
+   }
+   
+   // Desc.:   Lists the tournaments that have matches in the snapshot
+   // Output:  ObservableList of tournament names, sorted alphabetically
+   public ObservableList<String> getTournaments() {
+      ArrayList<String> names = new ArrayList<String>(this.getTournamentIndex().keySet());
+      Collections.sort(names);
+      return FXCollections.observableList(names);
+   }
+   
+   // Desc.:   Gets the birth year, country and name indexes, creating every player of the container when first used
+   // Output:  TennisPlayerAttributeIndex of the players
+   public synchronized TennisPlayerAttributeIndex getAttributes() {
+      if (this.attributes == null) {
+         TennisPlayerAttributeIndex index = new TennisPlayerAttributeIndex();
+         for (int row = 0; row < this.snapshot.getTreePlayerCount(); row++) { index.add(this.getPlayer(row)); }
+         this.attributes = index;
+      }
+      return this.attributes;
+   }
+   
+   // Desc.:   Gets the leaderboard of a minimum number of matches, creating every player of the container when
+   //          first used. Records never change in read-only mode, so a cached leaderboard is never rebuilt
+   // Input:   Minimum number of matches played to be ranked
+   // Output:  TennisLeaderboard of the players
+   public synchronized TennisLeaderboard getLeaderboard( int minMatches ) {
+      TennisLeaderboard ranking = this.leaderboards.get(minMatches);
+      if (ranking == null) {
+         ranking = new TennisLeaderboard(minMatches);
+         for (int row = 0; row < this.snapshot.getTreePlayerCount(); row++) { ranking.update(this.getPlayer(row)); }
+         this.leaderboards.put(minMatches, ranking);
+      }
+      return ranking;
+   }
+   
+   // Desc.:   Binary search for the first of some match rows played on or before a date
+   // Input:   Match rows sorted newest first and date packed as YYYYMMDD
+   // Output:  Position of the first row not newer than the date. Length of rows if there is none
+   private int firstOnOrBefore( int[] rows, long date ) {
+      int lo = 0, hi = rows.length;
+      while (lo < hi) {
+         int mid = (lo + hi) >>> 1;
+         if (this.snapshot.getMatchField(rows[mid], 2) > date) { lo = mid + 1; }
+         else { hi = mid; }
+      }
+      return lo;
+   }
+   
+   // Desc.:   Binary search for the first match played on or before a date, in all matches or in a player's matches
+   // Input:   Player row (-1 for all matches), number of matches to search and date packed as YYYYMMDD
+   // Output:  Position of the first match not newer than the date. Count if there is none
+   private int firstOnOrBefore( int playerRow, int count, long date ) {
+      int lo = 0, hi = count;
+      while (lo < hi) {
+         int mid = (lo + hi) >>> 1;
+         int matchRow = (playerRow < 0) ? mid : this.snapshot.getPlayerMatch(playerRow, mid);
+         if (this.snapshot.getMatchField(matchRow, 2) > date) { lo = mid + 1; }
+         else { hi = mid; }
+      }
+      return lo;
+   }
+   
+   // Desc.:   Prints all players to the console (sorted by id)
+   // Output:  Throws an exception if there are no players
+   public void printAllPlayers()
+      throws TennisDatabaseRuntimeException {
+      int count = this.snapshot.getTreePlayerCount();
+      if (count == 0) { throw new TennisDatabaseRuntimeException("Error printing all players! No players to print!"); }
+      for (int i = 0; i < count; i++) { this.getPlayer(i).print(); }
+   }
+
+   // Desc.:   Prints all matches to the console (sorted by date, most recent first)
+   // Output:  Throws an exception if there are no matches
+   public void printAllMatches()
+      throws TennisDatabaseRuntimeException {
+      int count = this.snapshot.getMatchCount();
+      if (count == 0) { throw new TennisDatabaseRuntimeException("Error printing all matches! No matches to print!"); }
+      for (int i = 0; i < count; i++) { this.getMatch(i).print(); }
+   }
+
+   // Desc.:   Prints all matches of a player to the console
+   // Input:   Key of the id of the player
+   // Output:  Throws an exception if player doesn't exist or has no matches
+   public void printMatchesOfPlayer( PlayerKey key )
+      throws TennisDatabaseRuntimeException {
+      int row = this.findPlayer(key);
+      if (row < 0) { throw new TennisDatabaseRuntimeException("Error printing matches for player! Player with ID " + key.getId() + " does not exist."); }
+      int count = this.snapshot.getPlayerField(row, 8);
+      if (count == 0) { throw new TennisDatabaseRuntimeException("Error printing all tennis matches! Player has no matches to print!"); }
+      for (int i = 0; i < count; i++) { this.getMatch(this.snapshot.getPlayerMatch(row, i)).print(); }
+   }
+
+   // Desc.:   Checks a list index, as java.util.List requires
+   private static void checkIndex( int i, int size ) {
+      if (i < 0 || i >= size) { throw new IndexOutOfBoundsException("Index: " + i + ", Size: " + size); }
+   }
+}
+// © 2026 agent
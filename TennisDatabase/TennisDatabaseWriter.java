@@ -0,0 +1,116 @@
+/*
+ *    Class Name: TennisDatabaseWriter
+ *    Interface:  N/A
+ *    Package:    TennisDatabase
+ *    Purpose:    Streams database file lines through one large reusable byte buffer. Numbers are written digit by
+ *                digit and strings are copied byte by byte, so no String.format or line Strings are created.
+ *    Developer:  agent
+ *    Modified:   10/18/2026
+ */
+
+package TennisDatabase;
+
+import java.io.*;
+import java.nio.charset.Charset;
+
+class TennisDatabaseWriter {
+   private static final int BUFFER_SIZE = 1 << 20; // Bytes buffered before each write to the stream
+   private static final byte[] LINE_SEPARATOR = System.lineSeparator().getBytes();
+   private static final byte[] NULL = { 'n', 'u', 'l', 'l' }; // Written for missing strings, as string concatenation did
+   
+   private OutputStream out;
+   private Charset charset = Charset.defaultCharset(); // Encoding of non-ASCII strings. Same as the previous PrintWriter
+   private byte[] buf = new byte[BUFFER_SIZE];
+   private int pos;
+   private long bytesWritten, recordsWritten;
+   
+   // Constructor - creates a writer on top of an (unbuffered) output stream
+   public TennisDatabaseWriter( OutputStream out ) { this.out = out; }
+   
+   /* Getters */
+   public long getBytesWritten() { return this.bytesWritten + this.pos; }
+   public long getRecordsWritten() { return this.recordsWritten; }
+   
+   /* Functions / Methods */
+   // Desc.:   Writes a single ASCII character
+   public void write( char c ) throws IOException {
+      if (this.pos == this.buf.length) { this.flushBuffer(); }
+      this.buf[this.pos++] = (byte) c;
+   }
+   
+   // Desc.:   Writes a string. ASCII strings are copied directly, others are encoded with the default charset
+   public void write( String s ) throws IOException {
+      if (s == null) { this.write(NULL); return; }
+      int len = s.length();
+      if (len > this.buf.length - this.pos) { this.flushBuffer(); }
+      if (len <= this.buf.length - this.pos) {
+         int p = this.pos;
+         for (int i = 0; i < len; i++) {
+            char c = s.charAt(i);
+            if (c >= 0x80) { this.write(s.getBytes(this.charset)); return; } // Nothing committed yet. Encode whole string
+            this.buf[p++] = (byte) c;
+         }
+         this.pos = p;
+      } else { // Longer than the buffer
+         this.write(s.getBytes(this.charset));
+      }
+   }
+   
+   // Desc.:   Writes an int left-padded with zeros to at least the given width, like String.format("%0<width>d").
+   //          As with String.format, the width includes the minus sign of negative numbers (-1 as 4 wide is -001).
+   // Input:   Value and minimum width
+   public void writeInt( int value, int width ) throws IOException {
+      if (this.buf.length - this.pos < 11 + width) { this.flushBuffer(); } // Longest int is 11 chars
+      long v = value; // Long so that Integer.MIN_VALUE can be negated
+      if (v < 0) {
+         this.buf[this.pos++] = '-';
+         v = -v;
+         width--;
+      }
+      
+      int digits = 1;
+      for (long t = v; t >= 10; t /= 10) { digits++; }
+      for (int i = digits; i < width; i++) { this.buf[this.pos++] = '0'; }
+      
+      int end = this.pos + digits;
+      for (int p = end - 1; p >= this.pos; p--) {
+         this.buf[p] = (byte) ('0' + (v % 10));
+         v /= 10;
+      }
+      this.pos = end;
+   }
+   
+   // Desc.:   Ends the current record with the platform line separator
+   public void endRecord() throws IOException {
+      this.write(LINE_SEPARATOR);
+      this.recordsWritten++;
+   }
+   
+   // Desc.:   Writes all buffered bytes and flushes the stream
+   public void flush() throws IOException {
+      this.flushBuffer();
+      this.out.flush();
+   }
+   
+   // Desc.:   Copies bytes into the buffer, writing straight to the stream if they don't fit
+   private void write( byte[] b ) throws IOException {
+      if (b.length > this.buf.length - this.pos) { this.flushBuffer(); }
+      if (b.length > this.buf.length) {
+         this.out.write(b);
+         this.bytesWritten += b.length;
+         return;
+      }
+      System.arraycopy(b, 0, this.buf, this.pos, b.length);
+      this.pos += b.length;
+   }
+   
+   // Desc.:   Writes the buffer to the stream and empties it
+   private void flushBuffer() throws IOException {
+      if (this.pos > 0) {
+         this.out.write(this.buf, 0, this.pos);
+         this.bytesWritten += this.pos;
+         this.pos = 0;
+      }
+   }
+}
+// © 2026 agent
@@ -0,0 +1,41 @@
+/*
+ *    Class Name: TennisDictionaryStats
+ *    Interface:  N/A
+ *    Package:    TennisDatabase
+ *    Purpose:    Usage of one of the database's string dictionaries: number of distinct values, number of lookups
+ *                and how many of them found an existing value.
+ *    Developer:  agent
+ *    Modified:   10/18/2026
+ */
+
+package TennisDatabase;
+
+public class TennisDictionaryStats {
+   private String name;
+   private int size;
+   private long lookups;
+   private long hits;
+   
+   /* Constructors */
+   public TennisDictionaryStats( String name, int size, long lookups, long hits ) {
+      this.name = name;
+      this.size = size;
+      this.lookups = lookups;
+      this.hits = hits;
+   }
+   
+   /* Getters */
+   public String getName() { return this.name; }
+   public int getSize() { return this.size; }
+   public long getLookups() { return this.lookups; }
+   public long getHits() { return this.hits; }
+   
+   // Desc.:   Fraction of lookups that found an existing value
+   // Output:  Hit rate between 0 and 1 (0 if there were no lookups)
+   public double getHitRate() { return (this.lookups == 0) ? 0.0 : (double) this.hits / this.lookups; }
+   
+   public String toString() {
+      return String.format("%s: %d values, %d lookups, %.2f%% hits", this.name, this.size, this.lookups, this.getHitRate() * 100);
+   }
+}
+// © 2026 agent
@@ -0,0 +1,39 @@
+/*
+ *    Class Name: TennisHeadToHead
+ *    Interface:  N/A
+ *    Package:    TennisDatabase
+ *    Purpose:    Result of a head-to-head lookup: the matches two players played against each other and how many
+ *                of them each player won.
+ *    Developer:  agent
+ *    Modified:   10/18/2026
+ */
+
+package TennisDatabase;
+
+import javafx.collections.ObservableList;
+
+public class TennisHeadToHead {
+   private String player1Id, player2Id;
+   private int player1Wins, player2Wins;
+   private ObservableList<TennisMatch> matches;
+   
+   /* Constructors */
+   public TennisHeadToHead( String player1Id, String player2Id, int player1Wins, int player2Wins, ObservableList<TennisMatch> matches ) {
+      this.player1Id = player1Id;
+      this.player2Id = player2Id;
+      this.player1Wins = player1Wins;
+      this.player2Wins = player2Wins;
+      this.matches = matches;
+   }
+   
+   /* Getters */
+   public String getPlayer1Id() { return this.player1Id; }
+   public String getPlayer2Id() { return this.player2Id; }
+   public int getPlayer1Wins() { return this.player1Wins; }
+   public int getPlayer2Wins() { return this.player2Wins; }
+   public ObservableList<TennisMatch> getMatches() { return this.matches; } // Most recent first
+   public int getMatchCount() { return this.matches.size(); }
+   
+   public String toString() { return this.player1Id + " " + this.player1Wins + " - " + this.player2Wins + " " + this.player2Id; }
+}
+// © 2026 agent
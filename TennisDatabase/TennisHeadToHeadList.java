@@ -0,0 +1,45 @@
+/*
+ *    Class Name: TennisHeadToHeadList
+ *    Interface:  N/A
+ *    Package:    TennisDatabase
+ *    Purpose:    Matches between one pair of players, sorted like every other match list, with the running number
+ *                of wins of each player. (A, B) and (B, A) share the same list.
+ *    Developer:  agent
+ *    Modified:   10/18/2026
+ */
+
+package TennisDatabase;
+
+import javafx.collections.FXCollections;
+
+class TennisHeadToHeadList {
+   private TennisPlayer first, second; // The pair. Compared by identity, so a new player with a reused id is another pair
+   private TennisMatchesList matches = new TennisMatchesList();
+   private int firstWins, secondWins;
+   
+   // Constructor - creates an empty list for a pair of players
+   public TennisHeadToHeadList( TennisPlayer first, TennisPlayer second ) {
+      this.first = first;
+      this.second = second;
+   }
+   
+   // Desc.:   Adds a match between the pair and counts its winner
+   // Input:   TennisMatch object (reference) between the two players
+   public void insertMatch( TennisMatch m ) {
+      this.matches.insertMatch(m);
+      TennisPlayer winner = (m.getWinner() == 1) ? m.getPlayer1() : m.getPlayer2();
+      if (winner == this.first) { this.firstWins++; }
+      else { this.secondWins++; }
+   }
+   
+   // Desc.:   Creates the head-to-head record, seen from one of the players
+   // Input:   TennisPlayer object (reference) of the pair that should come first
+   // Output:  TennisHeadToHead with the matches newest first
+   public TennisHeadToHead toHeadToHead( TennisPlayer p ) {
+      boolean inOrder = (p == this.first);
+      return new TennisHeadToHead(inOrder ? this.first.getId() : this.second.getId(), inOrder ? this.second.getId() : this.first.getId(),
+                                  inOrder ? this.firstWins : this.secondWins, inOrder ? this.secondWins : this.firstWins,
+                                  (this.matches.size() == 0) ? FXCollections.<TennisMatch>observableArrayList() : this.matches.getMatches());
+   }
+}
+// © 2026 agent
@@ -0,0 +1,211 @@
+/*
+ *    Class Name: TennisLeaderboard
+ *    Interface:  N/A
+ *    Package:    TennisDatabase
+ *    Purpose:    Ranking of the players that played at least a minimum number of matches, by win percentage, then
+ *                wins, then id. Kept in an AVL tree where every node also stores the size of its subtree (order
+ *                statistic tree), so the rank of a player and the top k players are found in O(log n) (+ k) and a
+ *                record change only moves one player instead of re-sorting all of them.
+ *    Developer:  agent
+ *    Modified:   10/18/2026
+ */
+
+package TennisDatabase;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+
+class TennisLeaderboard {
+   static final int DEFAULT_MIN_MATCHES = 1; // Players without matches are not ranked by default
+   static final int MAX_CACHED = 8; // Leaderboards kept per container. Each one is updated on every record change
+
+   private int minMatches; // Matches a player must have played to be ranked
+   private Entry root;
+   private HashMap<PlayerKey, Entry> entries = new HashMap<PlayerKey, Entry>(); // Ranked players -> their tree entry
+
+   // Node of the ranking. Holds the record the player was ranked with, so it can still be found after the record changes
+   private static final class Entry {
+      private final TennisPlayer player;
+      private final int wins, played;
+      private Entry left, right;
+      private int height = 1, size = 1; // Height and number of nodes of the subtree rooted at this entry
+
+      private Entry( TennisPlayer player ) {
+         this.player = player;
+         this.wins = player.getWinLoss().getWins();
+         this.played = this.wins + player.getWinLoss().getLosses();
+      }
+   }
+
+   // Constructor - creates an empty leaderboard
+   // Input:   Minimum number of matches played to be ranked
+   TennisLeaderboard( int minMatches ) { this.minMatches = minMatches; }
+
+   // Leaderboards of the minimums in use, least recently used first. The oldest is dropped beyond MAX_CACHED,
+   // so callers mixing a few minimums don't rebuild on every call and updates stay bounded
+   static final class Cache {
+      private LinkedHashMap<Integer, TennisLeaderboard> leaderboards = new LinkedHashMap<Integer, TennisLeaderboard>(16, 0.75f, true); // Access order
+
+      public TennisLeaderboard get( int minMatches ) { return this.leaderboards.get(minMatches); }
+      public Collection<TennisLeaderboard> values() { return this.leaderboards.values(); }
+      public void clear() { this.leaderboards.clear(); }
+
+      // Desc.:   Caches a leaderboard, dropping the least recently used one if the cache is full
+      public void put( int minMatches, TennisLeaderboard leaderboard ) {
+         this.leaderboards.put(minMatches, leaderboard);
+         if (this.leaderboards.size() > MAX_CACHED) { this.leaderboards.remove(this.leaderboards.keySet().iterator().next()); }
+      }
+   }
+
+   /* Getters */
+   public int getMinMatches() { return this.minMatches; }
+   public int size() { return size(this.root); }
+
+   /* Functions / Methods */
+   // Desc.:   Ranks a player by its current record, moving it if it was already ranked. Players below the minimum
+   //          number of matches are left out (or dropped)
+   // Input:   TennisPlayer object (reference)
+   public void update( TennisPlayer p ) {
+      this.remove(p);
+      WinLossRec record = p.getWinLoss();
+      if (record.getWins() + record.getLosses() >= this.minMatches) {
+         Entry e = new Entry(p);
+         this.root = this.insert(this.root, e);
+         this.entries.put(p.getKey(), e);
+      }
+   }
+
+   // Desc.:   Removes a player from the ranking, if it is ranked
+   // Input:   TennisPlayer object (reference)
+   public void remove( TennisPlayer p ) {
+      Entry e = this.entries.remove(p.getKey());
+      if (e != null) { this.root = this.delete(this.root, e); }
+   }
+
+   // Desc.:   Gets the rank of a player
+   // Input:   Key of the player id
+   // Output:  Rank of the player (1 = best), or -1 if the player is not ranked
+   public int getRank( PlayerKey key ) {
+      Entry e = this.entries.get(key);
+      if (e == null) { return -1; }
+
+      int rank = 1;
+      Entry node = this.root;
+      while (node != e) { // Count the entries ranked before e on the way down
+         if (compare(e, node) < 0) {
+            node = node.left;
+         } else {
+            rank += size(node.left) + 1;
+            node = node.right;
+         }
+      }
+      return rank + size(e.left);
+   }
+
+   // Desc.:   Gets the best ranked players
+   // Input:   Maximum number of players to return
+   // Output:  ArrayList of at most k TennisPlayers, best first
+   public ArrayList<TennisPlayer> getTop( int k ) {
+      ArrayList<TennisPlayer> top = new ArrayList<TennisPlayer>(Math.max(0, Math.min(k, this.size())));
+      this.collect(this.root, top, k);
+      return top;
+   }
+
+   // Desc.:   Adds the entries of a subtree in rank order until the list holds k players
+   private void collect( Entry node, ArrayList<TennisPlayer> top, int k ) {
+      if (node == null || top.size() >= k) { return; }
+      this.collect(node.left, top, k);
+      if (top.size() < k) { top.add(node.player); }
+      this.collect(node.right, top, k);
+   }
+
+   // Desc.:   Determines the ranking order of two entries: higher win percentage, then more wins, then id
+   // Output:  Negative if a is ranked before b, positive if after, zero only for the same player
+   private static int compare( Entry a, Entry b ) {
+      // Compare wins / played without dividing. A player without matches counts as 0 / 1
+      long aPct = (long) a.wins * Math.max(b.played, 1), bPct = (long) b.wins * Math.max(a.played, 1);
+      if (aPct != bPct) { return (aPct > bPct) ? -1 : 1; }
+      if (a.wins != b.wins) { return (a.wins > b.wins) ? -1 : 1; }
+      return a.player.getKey().compareTo(b.player.getKey());
+   }
+
+   // Desc.:   Inserts an entry into a subtree
+   // Output:  New root of the (rebalanced) subtree
+   private Entry insert( Entry node, Entry e ) {
+      if (node == null) { return e; }
+      if (compare(e, node) < 0) { node.left = this.insert(node.left, e); }
+      else { node.right = this.insert(node.right, e); }
+      return this.rebalance(node);
+   }
+
+   // Desc.:   Removes an entry from a subtree. Entries are relinked rather than copied, so the entries map stays valid
+   // Output:  New root of the (rebalanced) subtree
+   private Entry delete( Entry node, Entry e ) {
+      if (node == e) {
+         if (node.left == null) { return node.right; }
+         if (node.right == null) { return node.left; }
+         Entry successor = node.right;
+         while (successor.left != null) { successor = successor.left; }
+         successor.right = this.deleteLeftMost(node.right);
+         successor.left = node.left;
+         return this.rebalance(successor);
+      }
+      if (compare(e, node) < 0) { node.left = this.delete(node.left, e); }
+      else { node.right = this.delete(node.right, e); }
+      return this.rebalance(node);
+   }
+
+   // Desc.:   Unlinks the left-most entry of a subtree
+   // Output:  New root of the (rebalanced) subtree
+   private Entry deleteLeftMost( Entry node ) {
+      if (node.left == null) { return node.right; }
+      node.left = this.deleteLeftMost(node.left);
+      return this.rebalance(node);
+   }
+
+   /* AVL Balancing Operations */
+   private static int height( Entry node ) { return (node == null) ? 0 : node.height; }
+   private static int size( Entry node ) { return (node == null) ? 0 : node.size; }
+
+   // Desc.:   Recomputes the height and size of an entry from its children
+   private static void refresh( Entry node ) {
+      node.height = 1 + Math.max(height(node.left), height(node.right));
+      node.size = 1 + size(node.left) + size(node.right);
+   }
+
+   private Entry rotateRight( Entry node ) {
+      Entry newRoot = node.left;
+      node.left = newRoot.right;
+      newRoot.right = node;
+      refresh(node); // Old root is now the child. Update it first
+      refresh(newRoot);
+      return newRoot;
+   }
+
+   private Entry rotateLeft( Entry node ) {
+      Entry newRoot = node.right;
+      node.right = newRoot.left;
+      newRoot.left = node;
+      refresh(node); // Old root is now the child. Update it first
+      refresh(newRoot);
+      return newRoot;
+   }
+
+   // Desc.:   Restores the AVL property at an entry whose children are already balanced
+   // Output:  New root of the subtree
+   private Entry rebalance( Entry node ) {
+      refresh(node);
+      int balance = height(node.left) - height(node.right);
+      if (balance > 1) { // Left heavy
+         if (height(node.left.left) < height(node.left.right)) { node.left = this.rotateLeft(node.left); }
+         return this.rotateRight(node);
+      } else if (balance < -1) { // Right heavy
+         if (height(node.right.right) < height(node.right.left)) { node.right = this.rotateRight(node.right); }
+         return this.rotateLeft(node);
+      }
+      return node;
+   }
+}
+// © 2026 agent
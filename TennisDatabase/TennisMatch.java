@@ -5,22 +5,24 @@
  *    Purpose:    Stores all data regarding a tennis match. Provides methods/functions to compute set score,
  *                compare to other tennis matches, and print the match's data to console
  *    Developer:  Jeremy Maxey-Vesperman
- *    Modified:   05/04/2018
+ *    Modified:   10/18/2026
  */
  
 package TennisDatabase;
 
-import java.util.Scanner;
-
 public class TennisMatch implements TennisMatchInterface {
-   private final String SET_DELIM = ",", GAME_DELIM = "-"; // Delimiter constants
+   private static final String SET_DELIM = ",", GAME_DELIM = "-"; // Delimiter constants
+   private static final int MAX_YEAR = (Integer.MAX_VALUE - 1231) / 10000; // Largest year of a packed date
+   private static final ThreadLocal<MatchSetScore> SCORE_PARSER = ThreadLocal.withInitial(MatchSetScore::new); // Reused for every score
    
    private TennisPlayer p1,
                         p2;
-   private String tournament,
-                  score;
-   private MatchDate date;
-   private int winner;
+   private int date;       // Packed as YYYYMMDD
+   private String tournament; // Shared instance from the database's tournament dictionary
+   private Object score;   // byte[] { number of sets, P1 games, P2 games, ... }, or the String if it can't be encoded
+   private byte winner;
+   private long sortKey;   // Newer date, then first 2 tournament chars. Orders matches without touching their strings
+   private long tieKey;    // First 4 score chars. Orders matches of the same date and tournament
    
    /* Constructors */
    public TennisMatch (TennisPlayer p1, TennisPlayer p2, int year, int month, int day, String tournament, String score) {
@@ -31,20 +33,46 @@ public class TennisMatch implements TennisMatchInterface {
       setScore(score);
    }
    
+   // Constructor - restores a match whose winner is already known (e.g. from a snapshot). Score is not re-parsed
+   // Input:   Players, packed date (YYYYMMDD), tournament, score (encoded games, or rawScore if it can't be encoded)
+   //          and winner
+   TennisMatch (TennisPlayer p1, TennisPlayer p2, int date, String tournament, byte[] games, String rawScore, int winner) {
+      setP1(p1);
+      setP2(p2);
+      setDate(new MatchDate(date / 10000, (date / 100) % 100, date % 100)); // Validates the date
+      setTournament(tournament);
+      this.score = (games != null) ? games : rawScore;
+      this.tieKey = prefixKey(this.getScore(), 4);
+      setWinner(winner);
+   }
+   
    /* Setters */
    public void setP1 (TennisPlayer p1) { this.p1 = p1; }
    public void setP2 (TennisPlayer p2) { this.p2 = p2; }
-   public void setDate (MatchDate md) { this.date = md; }
-   public void setDateYear (int year) { this.date.setYear(year); }
-   public void setDateMonth (int month) { this.date.setMonth(month); }
-   public void setDateDay (int day) { this.date.setDay(day); }
-   public void setTournament (String tournament) { this.tournament = tournament.toUpperCase(); }
+   public void setDate (MatchDate md) {
+      // Packed date must fit an int
+      if (md.getYear() > MAX_YEAR) {
+         throw new TennisDatabaseRuntimeException("Error setting match year! " + md.getYear() + " is not a valid year. Year must be integer 0 - " + MAX_YEAR + ".");
+      }
+      this.date = MatchDate.packDate(md.getYear(), md.getMonth(), md.getDay());
+      this.sortKey = ((long) (Integer.MAX_VALUE - this.date) << 32) | (this.sortKey & 0xFFFFFFFFL); // Newer dates sort first
+   }
+   public void setDateYear (int year) { MatchDate md = this.getDate(); md.setYear(year); this.setDate(md); }
+   public void setDateMonth (int month) { MatchDate md = this.getDate(); md.setMonth(month); this.setDate(md); }
+   public void setDateDay (int day) { MatchDate md = this.getDate(); md.setDay(day); this.setDate(md); }
+   // Tournaments passed in by the database are already canonical (upper case), so toUpperCase keeps the shared instance
+   public void setTournament (String tournament) {
+      this.tournament = tournament.toUpperCase();
+      this.sortKey = (this.sortKey & 0xFFFFFFFF00000000L) | prefixKey(this.tournament, 2);
+   }
    public void setScore (String score) {
-      this.score = score;
-      MatchSetScore msc = computeSetScore(this.score); // Compute the number of games that each player won in set
-      this.setWinner(msc.getWinner()); // Set the winner
+      MatchSetScore msc = SCORE_PARSER.get().parse(score); // Compute the games of each set and the sets won by each player
+      this.setWinner(msc.getWinner()); // Set the winner. Throws exception if the score has no winner
+      byte[] games = msc.toGames();
+      this.score = (games != null) ? games : score;
+      this.tieKey = prefixKey(score, 4);
    }
-   private void setWinner (int winner) { this.winner = winner; }
+   private void setWinner (int winner) { this.winner = (byte) winner; }
    
    /* Getters */
    public TennisPlayer getPlayer1() { return this.p1; }
@@ -53,106 +81,53 @@ public class TennisMatch implements TennisMatchInterface {
    public String getPlayer2Name () { return (this.p2.getFirstName() + " " + this.p2.getLastName()); }
    public String getPlayer1Id () { return this.p1.getId(); }
    public String getPlayer2Id () { return this.p2.getId(); }
-   public MatchDate getDate () { return this.date; }
+   public MatchDate getDate () { return new MatchDate(this.getDateYear(), this.getDateMonth(), this.getDateDay()); } // Copy. Use setDate to change
+   int getPackedDate () { return this.date; }
    public String getDateString () { return (this.getDateMonth() + "/" + this.getDateDay() + "/" + this.getDateYear()); }
-   public int getDateYear () { return this.date.getYear(); }
-   public int getDateMonth() { return this.date.getMonth(); }
-   public int getDateDay() { return this.date.getDay(); }
+   public int getDateYear () { return this.date / 10000; }
+   public int getDateMonth() { return (this.date / 100) % 100; }
+   public int getDateDay() { return this.date % 100; }
    public String getTournament () { return this.tournament; }
-   public String getScore () { return this.score; }
+   public String getScore () {
+      if (this.score instanceof String) { return (String) this.score; }
+      return decodeScore((byte[]) this.score);
+   }
+   byte[] getScoreGames () { return (this.score instanceof byte[]) ? (byte[]) this.score : null; } // Null if not encoded
    public int getWinner() { return winner; }
    
-   /* Functions / Methods */
-   // Desc.:   Function computes set score
-   // Input:   String representing the set score. Each match should be delimited by ",". Scores in each game should be delimited by "-"
-   // Output:  MatchSetScore object containing the wins for each player. Throws exception if set score is invalid format
-   private MatchSetScore computeSetScore(String set) 
-      throws TennisDatabaseRuntimeException {      
-      // Minimum possible length of set string is 3. Throw exception if this is not the case
-      if (set.length() < 3) {
-         throw new TennisDatabaseRuntimeException("Error parsing set! Match string is too short to be valid: " + set);
-      }
-      
-      // Determine index of set delimiter
-      int idx = set.indexOf(SET_DELIM);
-      
-      // Base Case
-      if (idx == -1) { // There are no more games in set after this
-         MatchSetScore score = new MatchSetScore();
-         // Figure out which player won that game
-         try { // Try computing the winner of the game
-            // Increment games won counter of appropriate player
-            if (computeGameWinner(set) == 1) {
-               score.incP1();
-            } else {
-               score.incP2();
-            }
-         } catch (TennisDatabaseRuntimeException e) {
-            System.out.println(e.getMessage()); // Warn user that we are skipping over this game if it is invalid
-            System.out.println("Skipping game for set winner computation.");
-         }
-         return score;
-      }
-      
-      // Recurrence Relation - More games in set after this game
-      // Parse set string
-      String game = set.substring(0, idx); // Store next game
-      set = set.substring((idx + 1), set.length()); // Reduce size of problem by one game
-      // Call to self
-      MatchSetScore score = computeSetScore(set); // Store reference to MatchSetScore created by base case
-      // Figure out which player won the game
-      // Increment games won counter of appropriate player
-      try {
-         if (computeGameWinner(game) == 1) {
-            score.incP1();
-         } else {
-            score.incP2();
-         }
-      } catch (TennisDatabaseRuntimeException e) {
-         System.out.println(e.getMessage()); // Warn user that we are skipping over this game if it is invalid
-         System.out.println("Skipping game for set winner computation.");
-      }
-      return score; // Return MatchSetScore reference to Caller
+   // Desc.:   Encodes a score like "6-4,3-6,7-6" as its number of sets followed by the two game counts of each set
+   // Input:   Score string
+   // Output:  Encoded bytes, or null if decoding them would not give back exactly the same string
+   static byte[] encodeScore( String score ) { return SCORE_PARSER.get().parse(score).toGames(); }
+   
+   // Desc.:   Packs the first characters of a string into a key. Keys order like String.compareTo, except that
+   //          equal keys (including a string that continues with '\0' characters) need a full comparison
+   // Input:   String and number of characters (at most 4)
+   // Output:  Unsigned key, 16 bits per character. Missing characters are 0
+   private static long prefixKey( String s, int chars ) {
+      long key = 0;
+      for (int i = 0; i < chars; i++) { key = (key << 16) | ((i < s.length()) ? s.charAt(i) : 0); }
+      return key;
    }
    
-   // Desc.:   Function to compute the winner of a specified game
-   // Input:   String representing one game score delimited by "-"
-   // Output:  Integer representing the player (Player 1 or Player 2) that won the game.
-   //          Throws exception if game string is misformatted, points are NAN, or winner can't be determined
-   private int computeGameWinner (String game) 
-      throws TennisDatabaseRuntimeException {      
-      // Minimum possible length of game string is 3. Throw exception if this isn't the case
-      if (game.length() < 3) {
-         throw new TennisDatabaseRuntimeException("Error parsing game! Game string is too short to be valid: " + game);
-      }
-      
-      int idx = game.indexOf(GAME_DELIM); // Determine index of game delimiter
-      // Throw exception if there is no delimiter
-      if (idx == -1) { 
-         throw new TennisDatabaseRuntimeException("Error parsing game! No delimiter found in current game: " + game);
-      }
-      
-      int p1Score, p2Score;
-      try { // try parsing scores as integers
-         p1Score = Integer.parseInt(game.substring(0, idx));
-         p2Score = Integer.parseInt(game.substring((idx + 1), game.length()));
-      } catch (NumberFormatException e){ // throw a more informative exception
-         throw new TennisDatabaseRuntimeException("Error parsing game! One or both scores of current game is NAN: " + game);
-      }
-      
-      // Can't computer game winner if points are equal. Throw exception
-      if (p1Score == p2Score) {
-         throw new TennisDatabaseRuntimeException("Error computing game winner! Points are equal: " + game);
+   // Desc.:   Decodes a score encoded by encodeScore
+   // Input:   Encoded bytes
+   // Output:  Score string
+   static String decodeScore( byte[] games ) {
+      StringBuilder sb = new StringBuilder(games.length * 2);
+      for (int b = 1; b < games.length; b += 2) {
+         if (b > 1) { sb.append(SET_DELIM); }
+         sb.append(games[b] & 0xFF).append(GAME_DELIM).append(games[b + 1] & 0xFF);
       }
-      
-      return ((p1Score > p2Score) ? 1 : 2); // Return the winner of the game
+      return sb.toString();
    }
    
+   /* Functions / Methods */
    // Desc.:   Prints this tennis match on the console.
    public void print() {
       TennisPlayer player1 = this.getPlayer1();
       TennisPlayer player2 = this.getPlayer2();
-      String msg = ( this.date.getDateStr() + ", " + player1.getFirstName() + " " + player1.getLastName() + " vs. " + player2.getFirstName() + " " + player2.getLastName() + ", " + this.getTournament() + ", " + 
+      String msg = ( this.getDate().getDateStr() + ", " + player1.getFirstName() + " " + player1.getLastName() + " vs. " + player2.getFirstName() + " " + player2.getLastName() + ", " + this.getTournament() + ", " + 
                      this.getScore() + ", WINNER: " + ((this.getWinner() == 1) ? player1.getFirstName() + " " + player1.getLastName() : player2.getFirstName() + " " + player2.getLastName()));
       System.out.println(msg);
    }
@@ -172,18 +147,24 @@ public class TennisMatch implements TennisMatchInterface {
       // Optimization to first check if we are comparing the same object
       if (this == tm) { return EQUAL; }
       
-      // Compare Date
-      int comparison = this.getDate().compareTo(tm.getDate());
-      if (comparison == -1) { return BEFORE; }
-      if (comparison == 1) { return AFTER; }
+      // Compare Date (newer matches come first) and the start of the Tournament
+      if (this.sortKey != tm.sortKey) { return (this.sortKey < tm.sortKey) ? BEFORE : AFTER; }
       
-      // Compare by Tournament
-      comparison = this.getTournament().compareTo(tm.getTournament());
-      if (comparison != EQUAL) { return comparison; }
+      // Compare by Tournament. Equal tournaments of the same database share their instance
+      int comparison;
+      if (this.tournament != tm.tournament) {
+         comparison = this.getTournament().compareTo(tm.getTournament());
+         if (comparison != EQUAL) { return comparison; }
+      }
       
-      // Compare by Score
-      comparison = this.getScore().compareTo(tm.getScore());
-      if (comparison != EQUAL) { return comparison; }
+      // Compare by the start of the Score
+      if (this.tieKey != tm.tieKey) { return (Long.compareUnsigned(this.tieKey, tm.tieKey) < 0) ? BEFORE : AFTER; }
+      
+      // Compare by Score. Identical encodings are equal scores and need no decoding
+      if (!(this.score instanceof byte[] && tm.score instanceof byte[] && java.util.Arrays.equals((byte[]) this.score, (byte[]) tm.score))) {
+         comparison = this.getScore().compareTo(tm.getScore());
+         if (comparison != EQUAL) { return comparison; }
+      }
       
       // Compare by Player 1 ID
       comparison = this.getPlayer1Id().compareTo(tm.getPlayer1Id());
@@ -197,4 +178,4 @@ public class TennisMatch implements TennisMatchInterface {
       return EQUAL;
    }
 }
-// © 2018 Jeremy Maxey-Vesperman
\ No newline at end of file
+// © 2018 Jeremy Maxey-Vesperman
@@ -23,4 +23,4 @@ interface TennisMatchInterface extends Comparable<TennisMatch> {
    // Desc.: Prints this tennis match on the console.
    public void print();
 }
-// © 2018 Giuseppe Turini
\ No newline at end of file
+// © 2018 Giuseppe Turini
@@ -2,30 +2,116 @@
  *    Class Name: TennisMatchNode
  *    Interface:  N/A
  *    Package:    TennisDatabase
- *    Purpose:    Singly-Linked List match node. 
+ *    Purpose:    Singly-Linked List match node holding a contiguous, sorted chunk of matches.
+ *                The chunk array grows on demand up to MAX_CAPACITY, after which the list splits it.
  *    Developer:  Jeremy Maxey-Vesperman
- *    Modified:   05/04/2018
+ *    Modified:   10/18/2026
  */
 
 package TennisDatabase;
 
 class TennisMatchNode {
-   private TennisMatch match; // Tennis match object (reference)
+   public static final int MIN_CAPACITY = 4; // Initial chunk size. Keeps players with few matches small
+   public static final int MAX_CAPACITY = 64; // Chunk size at which the list splits the node
+
+   private TennisMatch[] matches; // Tennis match objects (references). Occupy [start, start + count)
+   private int start, count;
    private TennisMatchNode next; // Pointer to next node
-   
+
    /* Constructors */
-   public TennisMatchNode (TennisMatch match) { this.match = match; }
-   public TennisMatchNode (TennisMatch match, TennisMatchNode next) {
-      this.match = match;
-      this.next = next;
+   // Creates a chunk holding a single match. The match is placed at the end of the array if the chunk is
+   // expected to grow towards the front (prepends), otherwise at the beginning (appends)
+   public TennisMatchNode (TennisMatch match, boolean growsToFront) {
+      this.matches = new TennisMatch[MIN_CAPACITY];
+      this.start = growsToFront ? (MIN_CAPACITY - 1) : 0;
+      this.matches[this.start] = match;
+      this.count = 1;
    }
-   
+
+   // Creates a full size chunk from a run of matches
+   TennisMatchNode (TennisMatch[] src, int srcPos, int length) {
+      this.matches = new TennisMatch[MAX_CAPACITY];
+      System.arraycopy(src, srcPos, this.matches, 0, length);
+      this.start = 0;
+      this.count = length;
+   }
+
    /* Setters */
-   public void setMatch(TennisMatch match) { this.match = match; }
    public void setNext(TennisMatchNode next) { this.next = next; }
-   
+
    /* Getters */
-   public TennisMatch getMatch() { return this.match; }
+   public TennisMatch getMatch(int i) { return this.matches[this.start + i]; } // i relative to first match in chunk
+   public TennisMatch getFirst() { return this.matches[this.start]; }
+   public TennisMatch getLast() { return this.matches[this.start + this.count - 1]; }
+   public int getCount() { return this.count; }
+   public boolean isFull() { return (this.count == MAX_CAPACITY); }
    public TennisMatchNode getNext() { return this.next; }
+
+   /* Functions / Methods */
+   // Desc.:   Binary search for the position after the last match that sorts before or equal to m
+   // Input:   TennisMatch to position
+   // Output:  Insertion position (relative to first match in chunk) that keeps equal matches in arrival order
+   public int upperBound( TennisMatch m ) {
+      int lo = 0, hi = this.count;
+      while (lo < hi) {
+         int mid = (lo + hi) >>> 1;
+         if (m.compareTo(this.matches[this.start + mid]) < 0) { hi = mid; }
+         else { lo = mid + 1; }
+      }
+      return lo;
+   }
+
+   // Desc.:   Binary search for the first match played on or before a date (matches are sorted newest first)
+   // Input:   Date packed as YYYYMMDD
+   // Output:  Position (relative to first match in chunk) of the first match not newer than the date. Count if none
+   public int firstOnOrBefore( int date ) {
+      int lo = 0, hi = this.count;
+      while (lo < hi) {
+         int mid = (lo + hi) >>> 1;
+         if (this.matches[this.start + mid].getPackedDate() > date) { lo = mid + 1; }
+         else { hi = mid; }
+      }
+      return lo;
+   }
+
+   // Desc.:   Inserts a match into this chunk, shifting whichever side of the chunk is shorter.
+   //          Chunk must not be full.
+   // Input:   Position (relative to first match in chunk) and TennisMatch to insert
+   public void insert( int pos, TennisMatch m ) {
+      if (this.count == this.matches.length) { this.grow(); }
+
+      boolean roomRight = (this.start + this.count < this.matches.length);
+      boolean roomLeft = (this.start > 0);
+      if (roomRight && (!roomLeft || pos >= (this.count >>> 1))) { // Shift tail of chunk right
+         System.arraycopy(this.matches, this.start + pos, this.matches, this.start + pos + 1, this.count - pos);
+      } else { // Shift head of chunk left
+         System.arraycopy(this.matches, this.start, this.matches, this.start - 1, pos);
+         this.start--;
+      }
+      this.matches[this.start + pos] = m;
+      this.count++;
+   }
+
+   // Desc.:   Moves the upper half of this chunk into a new node linked directly after this one
+   // Output:  The new node
+   public TennisMatchNode split() {
+      int half = this.count >>> 1;
+      TennisMatchNode upper = new TennisMatchNode(this.matches, this.start + half, this.count - half);
+      java.util.Arrays.fill(this.matches, this.start + half, this.start + this.count, null); // Drop moved references
+      this.count = half;
+      upper.setNext(this.next);
+      this.next = upper;
+      return upper;
+   }
+
+   // Desc.:   Doubles the chunk array (up to MAX_CAPACITY), centering the matches so both ends have room
+   private void grow() {
+      int capacity = Math.min(this.matches.length << 1, MAX_CAPACITY);
+      TennisMatch[] grown = new TennisMatch[capacity];
+      int newStart = (capacity - this.count) >>> 1;
+      System.arraycopy(this.matches, this.start, grown, newStart, this.count);
+      this.matches = grown;
+      this.start = newStart;
+   }
 }
-// © 2018 Jeremy Maxey-Vesperman
\ No newline at end of file
+// © 2018 Jeremy Maxey-Vesperman
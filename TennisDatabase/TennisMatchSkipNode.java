@@ -0,0 +1,31 @@
+/*
+ *    Class Name: TennisMatchSkipNode
+ *    Interface:  N/A
+ *    Package:    TennisDatabase
+ *    Purpose:    Skip list match node. Holds one forward pointer per level the node participates in.
+ *    Developer:  agent
+ *    Modified:   10/18/2026
+ */
+
+package TennisDatabase;
+
+class TennisMatchSkipNode {
+   private TennisMatch match; // Tennis match object (reference)
+   private TennisMatchSkipNode[] next; // Forward pointers. Index 0 is the full sorted list
+
+   /* Constructors */
+   public TennisMatchSkipNode (TennisMatch match, int levels) {
+      this.match = match;
+      this.next = new TennisMatchSkipNode[levels];
+   }
+
+   /* Setters */
+   public void setMatch(TennisMatch match) { this.match = match; }
+   public void setNext(int level, TennisMatchSkipNode next) { this.next[level] = next; }
+
+   /* Getters */
+   public TennisMatch getMatch() { return this.match; }
+   public TennisMatchSkipNode getNext(int level) { return this.next[level]; }
+   public int getLevels() { return this.next.length; }
+}
+// © 2026 agent
@@ -2,9 +2,11 @@
  *    Class Name: TennisMatchesContainer
  *    Interface:  TennisMatchesContainerInterface
  *    Package:    TennisDatabase
- *    Purpose:    Container for storing a sorted list of all TennisMatch objects
+ *    Purpose:    Container for storing a sorted list of all TennisMatch objects (skip list, O(log n) inserts).
+ *                Keeps a tournament index of per-tournament match lists (posting lists) in the same order, and a
+ *                head-to-head index of the matches of each pair of players
  *    Developer:  Jeremy Maxey-Vesperman
- *    Modified:   06/08/2018
+ *    Modified:   10/18/2026
  */
 
 package TennisDatabase;
@@ -14,74 +16,319 @@ import javafx.collections.ObservableList;
 import javafx.collections.FXCollections;
 
 // import other needed classes
-import java.util.LinkedList;
-import java.util.Iterator;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.io.*;
 
 public class TennisMatchesContainer implements TennisMatchesContainerInterface {   
-   private LinkedList<TennisMatch> matchesList;   
+   private static final int MAX_LEVEL = 16; // Supports ~4^16 matches before levels stop growing
    
-   // Contructor - Default creates an empty JCF LinkedList of TennisMatch objects
+   private TennisMatchSkipNode head; // Sentinel node. Holds no match and participates in every level
+   private int levels; // Number of levels currently in use
+   private int numOfMatches;
+   private int seed; // State of the level generator
+   private HashMap<String, TennisMatchesList> tournaments; // Matches of each tournament by name. Null until first used
+   private HashMap<TennisPlayer, HashMap<TennisPlayer, TennisHeadToHeadList>> rivalries; // Player -> opponent -> list, both ways. Null until first used
+   
+   // Contructor - Default creates an empty skip list of TennisMatch objects
    public TennisMatchesContainer() {
-      matchesList = new LinkedList<TennisMatch>();
+      head = new TennisMatchSkipNode(null, MAX_LEVEL);
+      levels = 1;
+      numOfMatches = 0;
+      seed = 0x2545F491; // Fixed seed. Keeps tower heights (and therefore performance) reproducible between runs
    }
    
    // Desc.:   Insert a TennisMatch object (reference) into this container.
+   //          Matches are kept sorted (see TennisMatch.compareTo). A match is inserted in front of any equal matches.
    // Input:   A TennisMatch object (reference).
    // Output:  Throws an exception if match cannot be inserted in this container.
    public void insertMatch( TennisMatch m )
       throws TennisDatabaseRuntimeException {
-      if (this.matchesList.contains(m)) {
-         throw new TennisDatabaseRuntimeException("Error! Match already exists!");
+      TennisMatchSkipNode[] update = new TennisMatchSkipNode[MAX_LEVEL]; // Last node before m on each level
+      
+      // Descend from the top level, advancing while the next match sorts before m
+      TennisMatchSkipNode curr = head;
+      for (int lvl = levels - 1; lvl >= 0; lvl--) {
+         TennisMatchSkipNode next = curr.getNext(lvl);
+         while (next != null && m.compareTo(next.getMatch()) > 0) {
+            curr = next;
+            next = curr.getNext(lvl);
+         }
+         update[lvl] = curr;
+      }
+      
+      // Same match object can only be stored once. Equal matches are contiguous right after the insertion point
+      for (TennisMatchSkipNode n = update[0].getNext(0); n != null && m.compareTo(n.getMatch()) == 0; n = n.getNext(0)) {
+         if (n.getMatch() == m) { throw new TennisDatabaseRuntimeException("Error! Match already exists!"); }
       }
       
-      if (this.matchesList.isEmpty()) { this.matchesList.add(m); }
-      else {
-         Iterator<TennisMatch> iter = matchesList.iterator(); // Get the iterator for the matches list
-         int i = 0;
-         while (iter.hasNext() && (m.compareTo(iter.next()) > 0)) {i++;}
+      int nodeLevels = this.randomLevels();
+      if (nodeLevels > levels) { // New levels start at the head
+         for (int lvl = levels; lvl < nodeLevels; lvl++) { update[lvl] = head; }
+         levels = nodeLevels;
+      }
+      
+      // Splice new node in on each of its levels
+      TennisMatchSkipNode mNode = new TennisMatchSkipNode(m, nodeLevels);
+      for (int lvl = 0; lvl < nodeLevels; lvl++) {
+         mNode.setNext(lvl, update[lvl].getNext(lvl));
+         update[lvl].setNext(lvl, mNode);
+      }
+      numOfMatches++;
+      if (tournaments != null) { this.tournamentList(m.getTournament()).insertMatch(m); } // Keep indexes in sync
+      if (rivalries != null) { this.addToRivalry(rivalries, m); }
+   }
+   
+   // Desc.:   Builds the skip list from matches already in container order in O(n). Container must be empty
+   // Input:   Array of TennisMatch objects in the order they should be stored
+   // Output:  Throws an exception if the container is not empty
+   void bulkLoad( TennisMatch[] sortedMatches )
+      throws TennisDatabaseRuntimeException {
+      if (numOfMatches != 0) { throw new TennisDatabaseRuntimeException("Error bulk loading matches! Tennis Matches Container is not empty!"); }
+      
+      TennisMatchSkipNode[] last = new TennisMatchSkipNode[MAX_LEVEL]; // Last node appended on each level
+      java.util.Arrays.fill(last, head);
+      for (TennisMatch m : sortedMatches) { // Append every match at the end of each of its levels
+         int nodeLevels = this.randomLevels();
+         if (nodeLevels > levels) { levels = nodeLevels; }
          
-         matchesList.add(i, m);
+         TennisMatchSkipNode mNode = new TennisMatchSkipNode(m, nodeLevels);
+         for (int lvl = 0; lvl < nodeLevels; lvl++) {
+            last[lvl].setNext(lvl, mNode);
+            last[lvl] = mNode;
+         }
+      }
+      numOfMatches = sortedMatches.length;
+      tournaments = null; // Indexes are built from the loaded matches when first used
+      rivalries = null;
+   }
+   
+   // Desc.:   Picks the number of levels for a new node. Each extra level has a 1/4 chance
+   // Output:  Number of levels, between 1 and MAX_LEVEL
+   private int randomLevels() {
+      // Xorshift step. Cheap and deterministic
+      seed ^= (seed << 13);
+      seed ^= (seed >>> 17);
+      seed ^= (seed << 5);
+      
+      int lvl = 1;
+      int bits = seed;
+      while (lvl < MAX_LEVEL && (bits & 3) == 0) { // Two random bits per level
+         lvl++;
+         bits >>>= 2;
       }
+      return lvl;
    }
    
-   // Desc.:   Wraps matches list in an ObservableList
+   // Desc.:   Copies the matches of this container into an array
+   // Output:  Matches in container order (newest first)
+   TennisMatch[] toArray() {
+      TennisMatch[] matches = new TennisMatch[numOfMatches];
+      int i = 0;
+      for (TennisMatchSkipNode n = head.getNext(0); n != null; n = n.getNext(0)) { matches[i++] = n.getMatch(); }
+      return matches;
+   }
+   
+   // Desc.:   Gets the number of matches in this container
+   // Output:  Number of matches
+   public int size() { return numOfMatches; }
+   
+   // Desc.:   Copies the sorted matches into an ObservableList
    // Output.: Returns an ObservableList object of TennisMatches
    public ObservableList<TennisMatch> getMatchesList() {
+      ArrayList<TennisMatch> matchesList = new ArrayList<TennisMatch>(numOfMatches);
+      for (TennisMatchSkipNode n = head.getNext(0); n != null; n = n.getNext(0)) {
+         matchesList.add(n.getMatch());
+      }
+      return FXCollections.observableList(matchesList);
+   }
+   
+   // Desc.:   Finds the matches played between two dates. The list is sorted newest first, so the search descends
+   //          the levels to the first match on or before 'to' in O(log n) and then walks only the matches in range
+   // Input:   First and last date (packed as YYYYMMDD), inclusive
+   // Output:  ObservableList of the matches in range, newest first. Empty if there are none
+   public ObservableList<TennisMatch> getMatchesBetween( int from, int to ) {
+      ArrayList<TennisMatch> matchesList = new ArrayList<TennisMatch>();
+      
+      // Descend from the top level, advancing while the next match is newer than 'to'
+      TennisMatchSkipNode curr = head;
+      for (int lvl = levels - 1; lvl >= 0; lvl--) {
+         TennisMatchSkipNode next = curr.getNext(lvl);
+         while (next != null && next.getMatch().getPackedDate() > to) {
+            curr = next;
+            next = curr.getNext(lvl);
+         }
+      }
+      
+      for (TennisMatchSkipNode n = curr.getNext(0); n != null && n.getMatch().getPackedDate() >= from; n = n.getNext(0)) {
+         matchesList.add(n.getMatch());
+      }
       return FXCollections.observableList(matchesList);
    }
    
+   // Desc.:   Gets the tournament index, building it in one pass over the matches if it isn't built yet
+   // Output:  Posting lists by tournament name (tournaments without matches have none)
+   private HashMap<String, TennisMatchesList> getTournamentIndex() {
+      if (tournaments == null) {
+         HashMap<String, ArrayList<TennisMatch>> runs = new HashMap<String, ArrayList<TennisMatch>>();
+         for (TennisMatchSkipNode n = head.getNext(0); n != null; n = n.getNext(0)) { // Container order is list order
+            ArrayList<TennisMatch> run = runs.get(n.getMatch().getTournament());
+            if (run == null) {
+               run = new ArrayList<TennisMatch>();
+               runs.put(n.getMatch().getTournament(), run);
+            }
+            run.add(n.getMatch());
+         }
+         
+         HashMap<String, TennisMatchesList> index = new HashMap<String, TennisMatchesList>();
+         for (String tournament : runs.keySet()) {
+            TennisMatchesList list = new TennisMatchesList();
+            list.bulkLoad(runs.get(tournament).toArray(new TennisMatch[0]));
+            index.put(tournament, list);
+         }
+         tournaments = index;
+      }
+      return tournaments;
+   }
+   
+   // Desc.:   Gets the posting list of a tournament, creating it if the tournament has no matches yet
+   // Input:   Tournament name (upper case)
+   // Output:  TennisMatchesList of the tournament
+   private TennisMatchesList tournamentList( String tournament ) {
+      TennisMatchesList list = tournaments.get(tournament);
+      if (list == null) {
+         list = new TennisMatchesList();
+         tournaments.put(tournament, list);
+      }
+      return list;
+   }
+   
+   // Desc.:   Creates an ObservableList of the matches of a tournament
+   // Input:   Tournament name (any case)
+   // Output:  ObservableList of the matches, newest first. Throws an exception if the tournament has no matches
+   public ObservableList<TennisMatch> getMatchesOfTournament( String tournament )
+      throws TennisDatabaseRuntimeException {
+      return this.retrieveTournament(tournament).getMatches();
+   }
+   
+   // Desc.:   Creates an ObservableList of the matches of one year of a tournament
+   // Input:   Tournament name (any case) and year
+   // Output:  ObservableList of the matches, newest first. Empty if there were none that year.
+   //          Throws an exception if the tournament has no matches
+   public ObservableList<TennisMatch> getMatchesOfTournament( String tournament, int year )
+      throws TennisDatabaseRuntimeException {
+      return this.retrieveTournament(tournament).getMatchesBetween(MatchDate.packDate(year, 1, 1), MatchDate.packDate(year, 12, 31));
+   }
+   
+   // Desc.:   Looks up the posting list of a tournament
+   // Input:   Tournament name (any case)
+   // Output:  TennisMatchesList of the tournament. Throws an exception if the tournament has no matches
+   private TennisMatchesList retrieveTournament( String tournament )
+      throws TennisDatabaseRuntimeException {
+      TennisMatchesList list = this.getTournamentIndex().get(tournament.toUpperCase());
+      if (list == null) {
+         throw new TennisDatabaseRuntimeException("Error getting matches of tournament! Tournament " + tournament.toUpperCase() + " does not exist.");
+      }
+      return list;
+   }
+   
+   // Desc.:   Lists the tournaments that have matches in this container
+   // Output:  ObservableList of tournament names, sorted alphabetically
+   public ObservableList<String> getTournaments() {
+      ArrayList<String> names = new ArrayList<String>(this.getTournamentIndex().keySet());
+      Collections.sort(names);
+      return FXCollections.observableList(names);
+   }
+   
+   // Desc.:   Gets the head-to-head record of two players, served by the head-to-head index (built in one pass
+   //          over the matches if it isn't built yet). Pairs are keyed by player object, so matches left behind by
+   //          a deleted player never count for a new player with the same id
+   // Input:   TennisPlayer objects (reference) of the two players, as stored in the players container
+   // Output:  TennisHeadToHead seen from the first player. No matches if the players never met
+   public TennisHeadToHead getHeadToHead( TennisPlayer a, TennisPlayer b ) {
+      if (rivalries == null) {
+         HashMap<TennisPlayer, HashMap<TennisPlayer, TennisHeadToHeadList>> index = new HashMap<TennisPlayer, HashMap<TennisPlayer, TennisHeadToHeadList>>();
+         for (TennisMatchSkipNode n = head.getNext(0); n != null; n = n.getNext(0)) { this.addToRivalry(index, n.getMatch()); } // Appends, in order
+         rivalries = index;
+      }
+      
+      HashMap<TennisPlayer, TennisHeadToHeadList> opponents = rivalries.get(a);
+      TennisHeadToHeadList h2h = (opponents == null) ? null : opponents.get(b);
+      if (h2h == null) { h2h = new TennisHeadToHeadList(a, b); } // Never met
+      return h2h.toHeadToHead(a);
+   }
+   
+   // Desc.:   Drops the head-to-head lists of a deleted player. Its matches stay in the container
+   // Input:   TennisPlayer object (reference) that was removed from the players container
+   public void removeRivalries( TennisPlayer p ) {
+      if (rivalries == null) { return; }
+      HashMap<TennisPlayer, TennisHeadToHeadList> opponents = rivalries.remove(p);
+      if (opponents == null) { return; }
+      for (TennisPlayer opponent : opponents.keySet()) {
+         HashMap<TennisPlayer, TennisHeadToHeadList> theirs = rivalries.get(opponent);
+         if (theirs == null) { continue; } // p played itself
+         theirs.remove(p);
+         if (theirs.isEmpty()) { rivalries.remove(opponent); }
+      }
+   }
+   
+   // Desc.:   Adds a match to the head-to-head list of its players. Both players map to the same list
+   // Input:   Head-to-head index and TennisMatch object (reference)
+   private void addToRivalry( HashMap<TennisPlayer, HashMap<TennisPlayer, TennisHeadToHeadList>> index, TennisMatch m ) {
+      TennisPlayer a = m.getPlayer1(), b = m.getPlayer2();
+      HashMap<TennisPlayer, TennisHeadToHeadList> opponents = index.get(a);
+      if (opponents == null) {
+         opponents = new HashMap<TennisPlayer, TennisHeadToHeadList>();
+         index.put(a, opponents);
+      }
+      TennisHeadToHeadList h2h = opponents.get(b);
+      if (h2h == null) {
+         h2h = new TennisHeadToHeadList(a, b);
+         opponents.put(b, h2h);
+         HashMap<TennisPlayer, TennisHeadToHeadList> theirs = index.get(b);
+         if (theirs == null) {
+            theirs = new HashMap<TennisPlayer, TennisHeadToHeadList>();
+            index.put(b, theirs);
+         }
+         theirs.put(a, h2h);
+      }
+      h2h.insertMatch(m);
+   }
+   
    // Desc.:   Prints all tennis matches to the console.
    // Output:  Throws an exception if there are no matches in this container.
    public void printAllMatches() {
-      Iterator<TennisMatch> iter = matchesList.iterator();
-      
-      if (!iter.hasNext()) { throw new TennisDatabaseRuntimeException("Error printing all matches! No matches to print!"); }
+      if (numOfMatches == 0) { throw new TennisDatabaseRuntimeException("Error printing all matches! No matches to print!"); }
       
-      while (iter.hasNext()) {
-         iter.next().print();
+      for (TennisMatchSkipNode n = head.getNext(0); n != null; n = n.getNext(0)) {
+         n.getMatch().print();
       }
    }
    
    // Desc.:   Writes all tennis matches to a text file.
-   // Input:   Preconfigured PrintWriter object to output data to file.
+   // Input:   Database writer streaming to the text file
    // Output:  All matches in database formatted in a text file.
-   public void matchesToFile(PrintWriter writer) {
-      // Create an iterator for the matches list
-      Iterator<TennisMatch> iter = matchesList.iterator();
-      
-      // Iterate through list and output all formatted matches to text file
-      while( iter.hasNext() ) {
-         TennisMatch m = iter.next();
-         String p1Id = m.getPlayer1Id();
-         String p2Id = m.getPlayer2Id();
-         MatchDate date = m.getDate();
-         String dateStr = String.format("%1$04d%2$02d%3$02d", date.getYear() ,date.getMonth(), date.getDay() );
-         String tournament = m.getTournament();
-         String score = m.getScore();
+   void matchesToFile(TennisDatabaseWriter writer) throws IOException {
+      // Walk the bottom level of the skip list and output all formatted matches to text file
+      for (TennisMatchSkipNode n = head.getNext(0); n != null; n = n.getNext(0)) {
+         TennisMatch m = n.getMatch();
          
-         writer.println("MATCH/" + p1Id + "/" + p2Id + "/" + dateStr + "/" + tournament + "/" + score);
+         // MATCH/p1/p2/YYYYMMDD/tournament/score
+         writer.write("MATCH/");
+         writer.write(m.getPlayer1Id());
+         writer.write('/');
+         writer.write(m.getPlayer2Id());
+         writer.write('/');
+         writer.writeInt(m.getDateYear(), 4);
+         writer.writeInt(m.getDateMonth(), 2);
+         writer.writeInt(m.getDateDay(), 2);
+         writer.write('/');
+         writer.write(m.getTournament());
+         writer.write('/');
+         writer.write(m.getScore());
+         writer.endRecord();
       }
    }
 }
-// © 2018 Jeremy Maxey-Vesperman
\ No newline at end of file
+// © 2018 Jeremy Maxey-Vesperman
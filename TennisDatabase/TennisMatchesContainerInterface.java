@@ -21,4 +21,4 @@ interface TennisMatchesContainerInterface {
    // Output: Throws an exception if there are no matches in this container.
    public void printAllMatches() throws TennisDatabaseRuntimeException;  
 }
-// © 2018 Giuseppe Turini
\ No newline at end of file
+// © 2018 Giuseppe Turini
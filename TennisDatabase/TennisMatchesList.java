@@ -2,10 +2,10 @@
  *    Class Name: TennisPlayer
  *    Interface:  TennisPlayerInterface
  *    Package:    TennisDatabase
- *    Purpose:    Singly-Linked List for storing a specific player's matches.
+ *    Purpose:    Singly-Linked List of array chunks for storing a specific player's matches.
  *                Provides methods to insert a match and print all matches of player
  *    Developer:  Jeremy Maxey-Vesperman
- *    Modified:   06/08/2018
+ *    Modified:   10/18/2026
  */
 
 package TennisDatabase;
@@ -13,56 +13,118 @@ package TennisDatabase;
 import javafx.collections.ObservableList;
 import javafx.collections.FXCollections;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
 
 class TennisMatchesList implements TennisMatchesListInterface {
-   private TennisMatchNode head;
+   private TennisMatchNode head, tail;
    private int numOfMatches;
    
    // Desc.:   Insert a TennisMatch object (reference) into this list.
+   //          Matches arriving in order are placed at either end of the list without searching.
+   //          Otherwise the containing chunk is found and the match is binary-search inserted into it.
    // Input:   A TennisMatch object (reference).
    // Output:  Throws an exception if match cannot be inserted in this list.
    public void insertMatch( TennisMatch m )
       throws TennisDatabaseRuntimeException {
-      if (numOfMatches == 0) { // No matches exist... insert node at head
-         head = new TennisMatchNode(m);
-      } else { // Otherwise... find insertion point
-         TennisMatchNode prev = null, curr = head;
-         
-         do {
-            if (m.compareTo(curr.getMatch()) < 0) { break; } // Exit loop if match belongs in front of current node
-            prev = curr;
-            curr = curr.getNext(); // Advance through list
-         } while (curr != null); // Stop when end of list is reached
+      if (numOfMatches == 0) { // No matches exist... create the first chunk
+         head = tail = new TennisMatchNode(m, false);
+      } else if (m.compareTo(tail.getLast()) >= 0) { // Fast path: belongs at the end of the list
+         if (tail.isFull()) {
+            TennisMatchNode mNode = new TennisMatchNode(m, false);
+            tail.setNext(mNode);
+            tail = mNode;
+         } else {
+            tail.insert(tail.getCount(), m);
+         }
+      } else if (m.compareTo(head.getFirst()) < 0) { // Fast path: belongs at the front of the list
+         if (head.isFull()) {
+            TennisMatchNode mNode = new TennisMatchNode(m, true);
+            mNode.setNext(head);
+            head = mNode;
+         } else {
+            head.insert(0, m);
+         }
+      } else { // Otherwise... find the first chunk whose last match sorts after m
+         TennisMatchNode curr = head;
+         while (m.compareTo(curr.getLast()) >= 0) { curr = curr.getNext(); } // Always stops by tail (checked above)
          
-         if ((curr == head) && (prev == null)) {
-            // Check if insert before head (Full loop iteration didn't happen. Therefore current is still head and prev is still null)
-            head = new TennisMatchNode(m, curr); // Inserted player node becomes head node. Update pointer
-         } else { // Perform insertion other than before head
-            TennisMatchNode mNode = new TennisMatchNode(m, curr); // Insert before current node
-            prev.setNext(mNode); // Set next pointer of previous node to point to new node
+         int pos = curr.upperBound(m);
+         if (curr.isFull()) { // Split chunk and insert into the half that owns the position
+            TennisMatchNode upper = curr.split();
+            if (curr == tail) { tail = upper; }
+            if (pos > curr.getCount()) {
+               pos -= curr.getCount();
+               curr = upper;
+            }
          }
+         curr.insert(pos, m);
       }
       numOfMatches++; // Increment list size counter
    }
    
+   // Desc.:   Fills an empty list with already sorted matches, packed into full chunks.
+   //          Does not touch the player's win/loss record.
+   // Input:   Matches in list order
+   // Output:  Throws an exception if the list is not empty
+   void bulkLoad( TennisMatch[] sortedMatches )
+      throws TennisDatabaseRuntimeException {
+      if (numOfMatches != 0) { throw new TennisDatabaseRuntimeException("Error bulk loading matches! Player's matches list is not empty!"); }
+      
+      for (int i = 0; i < sortedMatches.length; i += TennisMatchNode.MAX_CAPACITY) {
+         TennisMatchNode mNode = new TennisMatchNode(sortedMatches, i, Math.min(TennisMatchNode.MAX_CAPACITY, sortedMatches.length - i));
+         if (head == null) { head = mNode; }
+         else { tail.setNext(mNode); }
+         tail = mNode;
+      }
+      numOfMatches = sortedMatches.length;
+   }
+   
+   // Desc.:   Copies the matches of this list into an array
+   // Output:  Matches in list order
+   TennisMatch[] toArray() {
+      TennisMatch[] matches = new TennisMatch[numOfMatches];
+      int i = 0;
+      for (TennisMatchNode curr = head; curr != null; curr = curr.getNext()) {
+         for (int j = 0; j < curr.getCount(); j++) { matches[i++] = curr.getMatch(j); }
+      }
+      return matches;
+   }
+   
+   // Desc.:   Gets the number of matches in this list
+   // Output:  Number of matches
+   public int size() { return numOfMatches; }
+   
    // Desc.:   Creates an ObservableList from matches list for tableview
    // Output:  Returns an ObservableList of TennisMatch objects
    public ObservableList<TennisMatch> getMatches()
       throws TennisDatabaseRuntimeException {
       // Throw error if there are no matches to print
       if (numOfMatches == 0) { throw new TennisDatabaseRuntimeException("Error getting all tennis matches! Player has no matches to print!"); }
-      // Start at head
+      // Copy every chunk, in order, into the list backing the ObservableList
+      ArrayList<TennisMatch> matches = new ArrayList<TennisMatch>(numOfMatches);
+      for (TennisMatchNode curr = head; curr != null; curr = curr.getNext()) {
+         for (int i = 0; i < curr.getCount(); i++) { matches.add(curr.getMatch(i)); }
+      }
+      return FXCollections.observableList(matches);
+   }
+   
+   // Desc.:   Creates an ObservableList of the matches played between two dates. Chunks newer than the range are
+   //          skipped by their last match, then the first match in range is binary searched within its chunk
+   // Input:   First and last date (packed as YYYYMMDD), inclusive
+   // Output:  ObservableList of the matches in range, newest first. Empty if there are none
+   public ObservableList<TennisMatch> getMatchesBetween( int from, int to ) {
+      ArrayList<TennisMatch> matches = new ArrayList<TennisMatch>();
       TennisMatchNode curr = head;
-      // Create empty ObservableList of TennisMatch objects
-      ObservableList<TennisMatch> oList = FXCollections.observableList(new LinkedList<TennisMatch>());
-      while(curr != null) {
-         // Iterate through and add all matches to the ObservableList
-         TennisMatch m = curr.getMatch();
-         oList.add(m);
-         curr = curr.getNext(); // Advance to next node
+      while (curr != null && curr.getLast().getPackedDate() > to) { curr = curr.getNext(); }
+      
+      for (int i = (curr == null) ? 0 : curr.firstOnOrBefore(to); curr != null; curr = curr.getNext(), i = 0) {
+         for (; i < curr.getCount(); i++) {
+            TennisMatch m = curr.getMatch(i);
+            if (m.getPackedDate() < from) { return FXCollections.observableList(matches); }
+            matches.add(m);
+         }
       }
-      return oList;
+      return FXCollections.observableList(matches);
    }
    
    // Desc.:   Prints all tennis matches in this list to the console.
@@ -73,11 +135,9 @@ class TennisMatchesList implements TennisMatchesListInterface {
       if (numOfMatches == 0) { throw new TennisDatabaseRuntimeException("Error printing all tennis matches! Player has no matches to print!"); }
       
       // Print all matches out
-      TennisMatchNode curr = head;
-      while (curr != null) {
-         curr.getMatch().print(); // Print match
-         curr = curr.getNext(); // Advance to next node
+      for (TennisMatchNode curr = head; curr != null; curr = curr.getNext()) {
+         for (int i = 0; i < curr.getCount(); i++) { curr.getMatch(i).print(); } // Print matches of chunk
       }
    }
 }
-// © 2018 Jeremy Maxey-Vesperman
\ No newline at end of file
+// © 2018 Jeremy Maxey-Vesperman
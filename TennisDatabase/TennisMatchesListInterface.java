@@ -21,4 +21,4 @@ interface TennisMatchesListInterface {
    // Output: Throws an exception if there are no matches in this list.
    public void printMatches() throws TennisDatabaseRuntimeException;
 }
-// © 2018 Giuseppe Turini
\ No newline at end of file
+// © 2018 Giuseppe Turini
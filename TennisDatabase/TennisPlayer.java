@@ -4,15 +4,15 @@
  *    Package:    TennisDatabase
  *    Purpose:    Provides a container for holding player data. Provides functions/methods to compare and print players.
  *    Developer:  Jeremy Maxey-Vesperman
- *    Modified:   05/04/2018
+ *    Modified:   10/18/2026
  */
 
 package TennisDatabase;
 
 public class TennisPlayer implements TennisPlayerInterface {
    /* Instance Variables */
-   private String uid,        // Unique ID of tennis player
-                  firstName,  // First name of tennis player
+   private PlayerKey key;     // Unique ID of tennis player
+   private String firstName,  // First name of tennis player
                   lastName,   // Last name of tennis player
                   country;    // Country of player
    private int year;          // Year the tennis player was born
@@ -20,8 +20,11 @@ public class TennisPlayer implements TennisPlayerInterface {
    
    /* Constructors */   
    // Constructor: UID - Minimum to create tennis player
-   TennisPlayer(String uid) { 
-      setUID(uid);
+   TennisPlayer(String uid) { this(PlayerKey.of(uid)); }
+   
+   // Constructor: Key - Minimum to create tennis player
+   TennisPlayer(PlayerKey key) {
+      setKey(key);
       setFirstName("UNKNOWN");
       setLastName("UNKNOWN");
       setYear(-1);
@@ -31,7 +34,12 @@ public class TennisPlayer implements TennisPlayerInterface {
    
    // Constructor: All fields
    TennisPlayer(String uid, String firstName, String lastName, int year, String country) {
-      setUID(uid);
+      this(PlayerKey.of(uid), firstName, lastName, year, country);
+   }
+   
+   // Constructor: All fields, id as a key
+   TennisPlayer(PlayerKey key, String firstName, String lastName, int year, String country) {
+      setKey(key);
       setFirstName(firstName);
       setLastName(lastName);
       setYear(year);
@@ -40,16 +48,19 @@ public class TennisPlayer implements TennisPlayerInterface {
    }
    
    /* Setters */
-   // Unique IDs should be immutable. Private so that only TennisPlayer can set the uid and only called from the constructor of the class
-   private void setUID (String uid) { this.uid = uid.toUpperCase(); }
+   // Unique IDs should be immutable. Private so that only TennisPlayer can set the uid and only called from the constructors of the class
+   private void setKey (PlayerKey key) { this.key = key; }
    public void setFirstName (String firstName) { this.firstName = firstName.toUpperCase(); }
    public void setLastName (String lastName) { this.lastName = lastName.toUpperCase(); }
    public void setYear (int year) { this.year = year; }
+   // Countries passed in by the database are shared instances from its country dictionary (already upper case,
+   // so toUpperCase keeps the instance)
    public void setCountry (String country) { this.country = country.toUpperCase(); }
    public void setWinLoss (WinLossRec wlr) { this.winLossRec = wlr; }
    
    /* Getters */
-   public String getId () { return this.uid; }
+   public String getId () { return this.key.getId(); }
+   PlayerKey getKey () { return this.key; }
    public String getFirstName () { return this.firstName; }
    public String getLastName () { return this.lastName; }
    public int getBirthYear () { return this.year; }
@@ -89,27 +100,33 @@ public class TennisPlayer implements TennisPlayerInterface {
       if (this == tp) { return EQUAL; }
       
       // Compare UID first
-      int comparison = this.getId().compareTo(tp.getId());
+      int comparison = this.getKey().compareTo(tp.getKey());
       if (comparison != EQUAL) { return comparison; }
       
-      // Sort by first name
-      comparison = this.getFirstName().compareTo(tp.getFirstName());
-      if (comparison != EQUAL) { return comparison; }
+      // Sort by first name (skipped when both players hold the same instance)
+      if (this.getFirstName() != tp.getFirstName()) {
+         comparison = this.getFirstName().compareTo(tp.getFirstName());
+         if (comparison != EQUAL) { return comparison; }
+      }
       
       // Sort by last name
-      comparison = this.getLastName().compareTo(tp.getLastName());
-      if (comparison != EQUAL) { return comparison; }
+      if (this.getLastName() != tp.getLastName()) {
+         comparison = this.getLastName().compareTo(tp.getLastName());
+         if (comparison != EQUAL) { return comparison; }
+      }
       
       // Sort by date-of-birth
       if (this.getBirthYear() < tp.getBirthYear()) { return BEFORE; }
       if (this.getBirthYear() > tp.getBirthYear()) { return AFTER; }
       
-      // Sort by country
-      comparison = this.getCountry().compareTo(tp.getCountry());
-      if (comparison != EQUAL) { return comparison; }
+      // Sort by country (dictionary instances, so equal countries are usually the same reference)
+      if (this.getCountry() != tp.getCountry()) {
+         comparison = this.getCountry().compareTo(tp.getCountry());
+         if (comparison != EQUAL) { return comparison; }
+      }
       
       // Contents of players are equal
       return EQUAL;
    }
 }
-// © 2018 Jeremy Maxey-Vesperman
\ No newline at end of file
+// © 2018 Jeremy Maxey-Vesperman
@@ -0,0 +1,134 @@
+/*
+ *    Class Name: TennisPlayerAttributeIndex
+ *    Interface:  N/A
+ *    Package:    TennisDatabase
+ *    Purpose:    Secondary indexes of the players by birth year, by country and by name. Players are kept in
+ *                ordered maps of birth year -> players sorted by id (one for all players and one per country), so
+ *                equality and range queries only visit the players they return. Names are kept in one ordered map
+ *                of "FIRST LAST" and "LAST" (each followed by the id) -> player, where the names starting with a
+ *                prefix are a contiguous range.
+ *    Developer:  agent
+ *    Modified:   10/18/2026
+ */
+
+package TennisDatabase;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+class TennisPlayerAttributeIndex {
+   private static final Comparator<TennisPlayer> BY_ID = Comparator.comparing(TennisPlayer::getKey);
+
+   private TreeMap<Integer, TreeSet<TennisPlayer>> byYear = new TreeMap<Integer, TreeSet<TennisPlayer>>(); // All players
+   private HashMap<String, TreeMap<Integer, TreeSet<TennisPlayer>>> byCountry = new HashMap<String, TreeMap<Integer, TreeSet<TennisPlayer>>>();
+   private TreeMap<String, TennisPlayer> byName = new TreeMap<String, TennisPlayer>(); // Full and last names, each + '\0' + id
+
+   /* Functions / Methods */
+   // Desc.:   Adds a player under its current birth year, country and names
+   // Input:   TennisPlayer object (reference)
+   public void add( TennisPlayer p ) {
+      add(this.byYear, p);
+      TreeMap<Integer, TreeSet<TennisPlayer>> country = this.byCountry.get(p.getCountry());
+      if (country == null) {
+         country = new TreeMap<Integer, TreeSet<TennisPlayer>>();
+         this.byCountry.put(p.getCountry(), country);
+      }
+      add(country, p);
+      addName(p.getFirstName() + " " + p.getLastName(), p);
+      addName(p.getLastName(), p);
+   }
+
+   // Desc.:   Removes a player. Must be called before the player's birth year, country or names change
+   // Input:   TennisPlayer object (reference)
+   public void remove( TennisPlayer p ) {
+      remove(this.byYear, p);
+      TreeMap<Integer, TreeSet<TennisPlayer>> country = this.byCountry.get(p.getCountry());
+      if (country != null) {
+         remove(country, p);
+         if (country.isEmpty()) { this.byCountry.remove(p.getCountry()); }
+      }
+      removeName(p.getFirstName() + " " + p.getLastName(), p);
+      removeName(p.getLastName(), p);
+   }
+
+   // Desc.:   Iterates over the players born in a range of years
+   // Input:   First and last birth year, inclusive
+   // Output:  Lazy iterator of the players, sorted by birth year then id
+   public Iterator<TennisPlayer> bornBetween( int fromYear, int toYear ) {
+      return range(this.byYear, fromYear, toYear);
+   }
+
+   // Desc.:   Iterates over the players of a country born in a range of years
+   // Input:   Country (any case) and first and last birth year, inclusive
+   // Output:  Lazy iterator of the players, sorted by birth year then id
+   public Iterator<TennisPlayer> fromCountry( String country, int fromYear, int toYear ) {
+      TreeMap<Integer, TreeSet<TennisPlayer>> players = this.byCountry.get(country.toUpperCase());
+      if (players == null) { return Collections.emptyIterator(); }
+      return range(players, fromYear, toYear);
+   }
+
+   // Desc.:   Finds players whose full name ("FIRST LAST") or last name starts with a prefix. Only the names in the
+   //          prefix range are visited, and the search stops as soon as enough players were found
+   // Input:   Prefix (any case) and maximum number of players to return
+   // Output:  Players sorted by the matching name, then id. A player is only returned once
+   public ArrayList<TennisPlayer> findByNamePrefix( String prefix, int limit ) {
+      String key = prefix.toUpperCase();
+      LinkedHashSet<TennisPlayer> found = new LinkedHashSet<TennisPlayer>();
+      for (Map.Entry<String, TennisPlayer> entry : this.byName.tailMap(key, true).entrySet()) {
+         if (found.size() >= limit || !entry.getKey().startsWith(key)) { break; } // Past the prefix range
+         found.add(entry.getValue());
+      }
+      return new ArrayList<TennisPlayer>(found);
+   }
+
+   // Desc.:   Adds a player under one of its names. The '\0' separator sorts players of the same name by id,
+   //          before any longer name
+   private void addName( String name, TennisPlayer p ) { this.byName.put(name + '\0' + p.getId(), p); }
+
+   // Desc.:   Removes a player from one of its names
+   private void removeName( String name, TennisPlayer p ) { this.byName.remove(name + '\0' + p.getId()); }
+
+   // Desc.:   Adds a player to the set of its birth year
+   private static void add( TreeMap<Integer, TreeSet<TennisPlayer>> years, TennisPlayer p ) {
+      TreeSet<TennisPlayer> players = years.get(p.getBirthYear());
+      if (players == null) {
+         players = new TreeSet<TennisPlayer>(BY_ID);
+         years.put(p.getBirthYear(), players);
+      }
+      players.add(p);
+   }
+
+   // Desc.:   Removes a player from the set of its birth year, dropping the year once it is empty
+   private static void remove( TreeMap<Integer, TreeSet<TennisPlayer>> years, TennisPlayer p ) {
+      TreeSet<TennisPlayer> players = years.get(p.getBirthYear());
+      if (players != null && players.remove(p) && players.isEmpty()) { years.remove(p.getBirthYear()); }
+   }
+
+   // Desc.:   Chains the player sets of a range of years into one iterator. Sets are only opened when reached
+   // Output:  Lazy iterator. Empty if fromYear > toYear
+   private static Iterator<TennisPlayer> range( TreeMap<Integer, TreeSet<TennisPlayer>> years, int fromYear, int toYear ) {
+      if (fromYear > toYear) { return Collections.emptyIterator(); }
+      final Iterator<TreeSet<TennisPlayer>> sets = years.subMap(fromYear, true, toYear, true).values().iterator();
+      return new Iterator<TennisPlayer>() {
+         private Iterator<TennisPlayer> curr = Collections.emptyIterator();
+
+         public boolean hasNext() {
+            while (!curr.hasNext() && sets.hasNext()) { curr = sets.next().iterator(); }
+            return curr.hasNext();
+         }
+
+         public TennisPlayer next() {
+            if (!this.hasNext()) { throw new java.util.NoSuchElementException(); }
+            return curr.next();
+         }
+      };
+   }
+}
+// © 2026 agent
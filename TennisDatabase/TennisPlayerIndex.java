@@ -0,0 +1,128 @@
+/*
+ *    Class Name: TennisPlayerIndex
+ *    Interface:  N/A
+ *    Package:    TennisDatabase
+ *    Purpose:    Open-addressing (linear probing) hash index mapping player keys to TennisPlayerNodes.
+ *                Used by TennisPlayersContainer for constant time point lookups.
+ *    Developer:  agent
+ *    Modified:   10/18/2026
+ */
+
+package TennisDatabase;
+
+class TennisPlayerIndex {
+   private static final int INITIAL_CAPACITY = 16; // Must be a power of two
+   private static final PlayerKey DELETED = PlayerKey.of("<DELETED>"); // Tombstone marker. Compared by reference only
+
+   private PlayerKey[] keys; // Player keys
+   private TennisPlayerNode[] nodes; // Node stored for the key in the same slot
+   private int size; // Number of live entries
+   private int used; // Number of live entries plus tombstones
+
+   // Constructor - Default creates an empty index
+   public TennisPlayerIndex() { this.clear(); }
+
+   /* Getters */
+   public int size() { return this.size; }
+   public boolean isEmpty() { return (this.size == 0); }
+
+   /* Functions / Methods */
+   // Desc.:   Removes all entries from the index
+   public void clear() {
+      this.keys = new PlayerKey[INITIAL_CAPACITY];
+      this.nodes = new TennisPlayerNode[INITIAL_CAPACITY];
+      this.size = 0;
+      this.used = 0;
+   }
+
+   // Desc.:   Looks up the node stored for a player id
+   // Input:   Player key
+   // Output:  TennisPlayerNode stored for the id. Null if the id is not indexed
+   public TennisPlayerNode get( PlayerKey key ) {
+      int mask = this.keys.length - 1;
+      int i = hash(key) & mask;
+
+      PlayerKey k;
+      while ((k = this.keys[i]) != null) { // Empty slot terminates the probe sequence
+         if (k != DELETED && k.equals(key)) { return this.nodes[i]; }
+         i = (i + 1) & mask; // Linear probing
+      }
+      return null;
+   }
+
+   // Desc.:   Stores the node for a player id, replacing any node already stored for it
+   // Input:   Player key and the TennisPlayerNode holding that player
+   public void put( PlayerKey key, TennisPlayerNode node ) {
+      if ((this.used + 1) * 2 > this.keys.length) { this.resize(); } // Keep load factor (tombstones included) at or below 1/2
+
+      int mask = this.keys.length - 1;
+      int i = hash(key) & mask;
+      int firstDeleted = -1;
+
+      PlayerKey k;
+      while ((k = this.keys[i]) != null) {
+         if (k == DELETED) {
+            if (firstDeleted == -1) { firstDeleted = i; } // Remember first reusable slot
+         } else if (k.equals(key)) {
+            this.nodes[i] = node; // Key already indexed. Replace node
+            return;
+         }
+         i = (i + 1) & mask;
+      }
+
+      if (firstDeleted != -1) { i = firstDeleted; } // Reuse tombstone
+      else { this.used++; } // Consuming a fresh slot
+      this.keys[i] = key;
+      this.nodes[i] = node;
+      this.size++;
+   }
+
+   // Desc.:   Removes a player id from the index
+   // Input:   Player key
+   // Output:  Node that was stored for the id. Null if the id was not indexed
+   public TennisPlayerNode remove( PlayerKey key ) {
+      int mask = this.keys.length - 1;
+      int i = hash(key) & mask;
+
+      PlayerKey k;
+      while ((k = this.keys[i]) != null) {
+         if (k != DELETED && k.equals(key)) {
+            TennisPlayerNode node = this.nodes[i];
+            this.keys[i] = DELETED; // Leave tombstone so later entries in the probe sequence stay reachable
+            this.nodes[i] = null;
+            this.size--;
+            return node;
+         }
+         i = (i + 1) & mask;
+      }
+      return null;
+   }
+
+   // Desc.:   Rehashes all live entries into a new table. Table grows only if live entries require it,
+   //          otherwise the rehash just purges tombstones.
+   private void resize() {
+      PlayerKey[] oldKeys = this.keys;
+      TennisPlayerNode[] oldNodes = this.nodes;
+
+      int capacity = oldKeys.length;
+      while ((this.size + 1) * 2 > capacity / 2) { capacity <<= 1; } // Leave room to grow after rehash
+
+      this.keys = new PlayerKey[capacity];
+      this.nodes = new TennisPlayerNode[capacity];
+      this.size = 0;
+      this.used = 0;
+
+      for (int i = 0; i < oldKeys.length; i++) {
+         if (oldKeys[i] != null && oldKeys[i] != DELETED) { this.put(oldKeys[i], oldNodes[i]); }
+      }
+   }
+
+   // Desc.:   Spreads the high bits of the key's hash code into the low bits used for the slot index
+   // Input:   Key to hash
+   // Output:  Spread hash code
+   private static int hash( PlayerKey key ) {
+      int h = key.hashCode(); // Cached by the key
+      return h ^ (h >>> 16);
+   }
+}
+// © 2026 agent
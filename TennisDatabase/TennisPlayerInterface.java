@@ -21,4 +21,4 @@ interface TennisPlayerInterface extends Comparable<TennisPlayer> {
    // Desc.: Prints this tennis player on the console.
    public void print(); 
 }
-// © 2018 Giuseppe Turini
\ No newline at end of file
+// © 2018 Giuseppe Turini
@@ -2,9 +2,9 @@
  *    Class Name: TennisPlayerNode
  *    Interface:  TennisPlayerNodeInterface
  *    Package:    TennisDatabase
- *    Purpose:    Node for storing TennisPlayers, pointers to children, and a matches list.
+ *    Purpose:    Node for storing TennisPlayers, pointers to children, subtree height and size, and a matches list.
  *    Developer:  Jeremy Maxey-Vesperman
- *    Modified:   06/08/2018
+ *    Modified:   10/18/2026
  */
 
 package TennisDatabase;
@@ -16,6 +16,8 @@ public class TennisPlayerNode implements TennisPlayerNodeInterface {
    private TennisPlayer player;
    private TennisMatchesList matchesList;
    private TennisPlayerNode left, right;
+   private int height; // Height of the subtree rooted at this node (leaf = 1). Maintained by TennisPlayersContainer
+   private int size; // Number of nodes in the subtree rooted at this node (leaf = 1). Maintained by TennisPlayersContainer
    
    // Constructor - creates a node with TennisPlayer item, no children, and empty matches list
    public TennisPlayerNode( TennisPlayer player ) {
@@ -23,6 +25,8 @@ public class TennisPlayerNode implements TennisPlayerNodeInterface {
       this.matchesList = new TennisMatchesList();
       this.setLeftChild(null);
       this.setRightChild(null);
+      this.setHeight(1);
+      this.setSize(1);
    }
    
    // Constructor - creates a node with TennisPlayer item, sets children, and creates empty matches list 
@@ -31,17 +35,28 @@ public class TennisPlayerNode implements TennisPlayerNodeInterface {
       this.matchesList = new TennisMatchesList();
       this.setLeftChild(left);
       this.setRightChild(right);
+      int leftHeight = (left == null) ? 0 : left.getHeight();
+      int rightHeight = (right == null) ? 0 : right.getHeight();
+      this.setHeight(1 + Math.max(leftHeight, rightHeight));
+      int leftSize = (left == null) ? 0 : left.getSize();
+      int rightSize = (right == null) ? 0 : right.getSize();
+      this.setSize(1 + leftSize + rightSize);
    }
    
    /* Setters */
    public void setPlayer(TennisPlayer player) { this.player = player; }
    public void setLeftChild(TennisPlayerNode left) { this.left = left; }
    public void setRightChild(TennisPlayerNode right) { this.right = right; }
+   public void setHeight(int height) { this.height = height; }
+   public void setSize(int size) { this.size = size; }
 
    /* Getters */
    public TennisPlayer getPlayer() { return this.player; }
    public TennisPlayerNode getLeftChild() { return this.left; }
    public TennisPlayerNode getRightChild() { return this.right; }
+   public int getHeight() { return this.height; }
+   public int getSize() { return this.size; }
+   TennisMatchesList getMatchesList() { return this.matchesList; }
    
    // Desc.:   Insert a TennisMatch object (reference) into this node.
    // Input:   A TennisMatch object (reference).
@@ -62,14 +77,14 @@ public class TennisPlayerNode implements TennisPlayerNodeInterface {
       // Increment either win or loss record based on whether winner id matches this player's id
       switch(winner) {
          case 1: 
-            if (this.getPlayer().getId().equals(m.getPlayer1Id())) { // Compare this player's id to the player 1 id of the match
+            if (this.getPlayer().getKey().equals(m.getPlayer1().getKey())) { // Compare this player's id to the player 1 id of the match
                this.getPlayer().incWinRecord(); // If they match, this player won the match
             } else {
                this.getPlayer().incLossRecord(); // Otherwise they lost
             }
             break;
          case 2:
-            if (this.getPlayer().getId().equals(m.getPlayer2Id())) { // Compare this player's id to the player 2 id of the match
+            if (this.getPlayer().getKey().equals(m.getPlayer2().getKey())) { // Compare this player's id to the player 2 id of the match
                this.getPlayer().incWinRecord(); // If they match, this player won the match
             } else {
                this.getPlayer().incLossRecord(); // Otherwise they lost
@@ -86,6 +101,13 @@ public class TennisPlayerNode implements TennisPlayerNodeInterface {
       return this.matchesList.getMatches();
    }
    
+   // Desc.:   Creates an ObservableList of the matches of this player played between two dates
+   // Input:   First and last date (packed as YYYYMMDD), inclusive
+   // Output:  ObservableList of the matches in range, newest first
+   public ObservableList<TennisMatch> getMatchesBetween( int from, int to ) {
+      return this.matchesList.getMatchesBetween(from, to);
+   }
+   
    // Desc.:   Prints all tennis matches in the list of this player to the console.
    // Output:  Throws an exception if there are no matches in this list.
    public void printMatches()
@@ -93,4 +115,4 @@ public class TennisPlayerNode implements TennisPlayerNodeInterface {
       this.matchesList.printMatches();
    }
 }
-// © 2018 Jeremy Maxey-Vesperman
\ No newline at end of file
+// © 2018 Jeremy Maxey-Vesperman
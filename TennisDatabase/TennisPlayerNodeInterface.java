@@ -29,4 +29,4 @@ interface TennisPlayerNodeInterface {
    // Output: Throws an exception if there are no matches in this list.
    public void printMatches() throws TennisDatabaseRuntimeException;
 }
-// © 2018 Turini, Maxey-Vesperman
\ No newline at end of file
+// © 2018 Turini, Maxey-Vesperman
@@ -2,9 +2,9 @@
  *    Class Name: TennisPlayersContainer
  *    Interface:  TennisPlayersContainerInterface
  *    Package:    TennisDatabase
- *    Purpose:    Provides a container to store TennisPlayerNodes as a binary search tree.
+ *    Purpose:    Provides a container to store TennisPlayerNodes as a self-balancing (AVL) binary search tree.
  *    Developer:  Jeremy Maxey-Vesperman
- *    Modified:   06/08/2018
+ *    Modified:   10/18/2026
  */
 
 package TennisDatabase;
@@ -12,11 +12,16 @@ package TennisDatabase;
 import javafx.collections.ObservableList;
 import javafx.collections.FXCollections;
 
-import java.util.LinkedList;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.io.*;
 
 public class TennisPlayersContainer implements TennisPlayersContainerInterface {
    private TennisPlayerNode root;
+   private TennisPlayerIndex index; // Hash index of id -> node for point lookups. Null when it must be rebuilt from the tree
+   private TennisPlayerAttributeIndex attributes; // Birth year, country and name indexes. Null until used or when it must be rebuilt
+   private TennisLeaderboard.Cache leaderboards = new TennisLeaderboard.Cache(); // Rankings by win percentage of each minimum in use
    
    /* Constructors */
    // Default creates an empty container
@@ -46,10 +51,14 @@ public class TennisPlayersContainer implements TennisPlayersContainerInterface {
    public void makeEmpty() { this.setRoot(null); }
    
    /* Setters */
-   public void setRoot(TennisPlayerNode root) { this.root = root; }
+   public void setRoot(TennisPlayerNode root) {
+      this.root = root;
+      this.invalidateIndexes(); // Structure replaced externally. Rebuild indexes on next use
+   }
    public void setRootPlayer( TennisPlayer player ) {
       if ( root != null ) {
          this.getRoot().setPlayer(player);
+         this.invalidateIndexes(); // Root id may have changed
       } else {
          this.setRoot(new TennisPlayerNode(player));
       }
@@ -60,6 +69,8 @@ public class TennisPlayersContainer implements TennisPlayersContainerInterface {
    public void attachLeft( TennisPlayer tp ) {
       if (!this.isEmpty() && this.getRoot().getLeftChild() == null) {
          this.getRoot().setLeftChild(new TennisPlayerNode(tp));
+         this.updateHeightAndSize(this.getRoot());
+         this.invalidateIndexes();
       }
    }
    
@@ -68,6 +79,8 @@ public class TennisPlayersContainer implements TennisPlayersContainerInterface {
    public void attachRight( TennisPlayer tp ) {
       if (!this.isEmpty() && this.getRoot().getRightChild() == null) {
          this.getRoot().setRightChild(new TennisPlayerNode(tp));
+         this.updateHeightAndSize(this.getRoot());
+         this.invalidateIndexes();
       }
    }
    
@@ -82,6 +95,8 @@ public class TennisPlayersContainer implements TennisPlayersContainerInterface {
       } else {
          this.getRoot().setLeftChild(leftTree.getRoot());
          leftTree.makeEmpty(); // Remove secondary entry point to tree
+         this.updateHeightAndSize(this.getRoot());
+         this.invalidateIndexes();
       }
    }
    
@@ -96,6 +111,8 @@ public class TennisPlayersContainer implements TennisPlayersContainerInterface {
       } else {
          this.getRoot().setRightChild(rightTree.getRoot());
          rightTree.makeEmpty(); // Remove secondary entry point to tree
+         this.updateHeightAndSize(this.getRoot());
+         this.invalidateIndexes();
       }
    }   
    
@@ -117,6 +134,8 @@ public class TennisPlayersContainer implements TennisPlayersContainerInterface {
       } else {
          TennisPlayersContainer leftTree = new TennisPlayersContainer(this.getRoot().getLeftChild());
          this.getRoot().setLeftChild(null);
+         this.updateHeightAndSize(this.getRoot());
+         this.invalidateIndexes();
          return leftTree;
       }
    }
@@ -131,6 +150,8 @@ public class TennisPlayersContainer implements TennisPlayersContainerInterface {
       } else {
          TennisPlayersContainer rightTree = new TennisPlayersContainer(this.getRoot().getRightChild());
          this.getRoot().setRightChild(null);
+         this.updateHeightAndSize(this.getRoot());
+         this.invalidateIndexes();
          return rightTree;
       }
    }
@@ -159,112 +180,230 @@ public class TennisPlayersContainer implements TennisPlayersContainerInterface {
    
    /* Binary Search Tree Operations */
    // Desc.:   Performs a search for a TennisPlayer with the search Id in the binary search tree
-   // Input:   TennisPlayersContainer to search and the String representation of the uid
+   // Input:   TennisPlayersContainer to search and the key of the uid
    // Output:  Boolean indicating if a matching player was found or not
-   public boolean search( TennisPlayersContainer tpc, String searchId ) {
-      if (tpc.isEmpty()) { return false; }
-      else {
-         int compare = searchId.toUpperCase().compareTo(tpc.getRoot().getPlayer().getId());
-         if (compare == 0) { return true; }
-         else if (compare < 0) {
-            return search(tpc.getLeftSubtree(), searchId);
-         } else {
-            return search(tpc.getRightSubtree(), searchId);
+   public boolean search( TennisPlayersContainer tpc, PlayerKey searchKey ) {
+      return (this.retrievePlayer(tpc, searchKey) != null);
+   }
+   
+   // Desc.:   Retrieves the TennisPlayerNode associated with the search ID using the id hash index.
+   // Input:   TennisPlayersContainer to search through and the key of the uid of the player
+   // Output:  TennisPlayerNode that contains the player with the uid matching search ID. Null if not found
+   public TennisPlayerNode retrievePlayer( TennisPlayersContainer tpc, PlayerKey searchKey ) {
+      return tpc.getIndex().get(searchKey); // Keys are already uppercase, so the lookup is case insensitive
+   }
+   
+   // Desc.:   Gets the id hash index of this tree, rebuilding it if the tree was restructured externally
+   // Output:  Up to date TennisPlayerIndex for this tree
+   private TennisPlayerIndex getIndex() {
+      if (this.index == null) {
+         TennisPlayerIndex rebuilt = new TennisPlayerIndex();
+         this.indexSubtree(rebuilt, this.root);
+         this.index = rebuilt;
+      }
+      return this.index;
+   }
+   
+   // Desc.:   Discards the indexes after the tree was restructured externally. They are rebuilt on next use
+   private void invalidateIndexes() {
+      this.index = null;
+      this.attributes = null;
+      this.leaderboards.clear();
+   }
+   
+   // Desc.:   Gets the birth year, country and name indexes, building them from the tree if they aren't built yet
+   // Output:  Up to date TennisPlayerAttributeIndex for this tree
+   private TennisPlayerAttributeIndex getAttributes() {
+      if (this.attributes == null) {
+         TennisPlayerAttributeIndex rebuilt = new TennisPlayerAttributeIndex();
+         if (!this.isEmpty()) { // Iterator needs a root. An empty tree gives an empty index
+            TennisPlayersContainerIterator tpci = new TennisPlayersContainerIterator(this);
+            tpci.setInorder();
+            while (tpci.hasNext()) { rebuilt.add(tpci.next().getPlayer()); }
          }
+         this.attributes = rebuilt;
       }
+      return this.attributes;
    }
    
-   // Desc.:   Retrieves the TennisPlayerNode associated with the search ID
-   // Input:   TennisPlayersContainer to traverse through and a String representing the uid of the player
-   // Output:  TennisPlayerNode that contains the player with the uid matching search ID
-   public TennisPlayerNode retrievePlayer( TennisPlayersContainer tpc, String searchId ) {
-      if (tpc.isEmpty()) { return null; }
-      else {
-         // Case insensitive comparison
-         int compare = searchId.toUpperCase().compareTo(tpc.getRoot().getPlayer().getId());
-         
-         if (compare == 0) { return tpc.getRoot(); }
-         else if (compare < 0) {
-            return retrievePlayer(tpc.getLeftSubtree(), searchId);
-         } else {
-            return retrievePlayer(tpc.getRightSubtree(), searchId);
+   // Desc.:   Gets the leaderboard of a minimum number of matches, building it from the tree if it isn't cached
+   // Input:   Minimum number of matches played to be ranked
+   // Output:  Up to date TennisLeaderboard for this tree
+   private TennisLeaderboard getLeaderboard( int minMatches ) {
+      TennisLeaderboard leaderboard = this.leaderboards.get(minMatches);
+      if (leaderboard == null) {
+         leaderboard = new TennisLeaderboard(minMatches);
+         if (!this.isEmpty()) { // Iterator needs a root. An empty tree gives an empty index
+            TennisPlayersContainerIterator tpci = new TennisPlayersContainerIterator(this);
+            tpci.setInorder();
+            while (tpci.hasNext()) { leaderboard.update(tpci.next().getPlayer()); }
          }
+         this.leaderboards.put(minMatches, leaderboard);
+      }
+      return leaderboard;
+   }
+   
+   // Desc.:   Gets the players with the best win percentage
+   // Input:   Number of players and minimum number of matches played to be ranked
+   // Output:  ObservableList of at most k TennisPlayers, best first (ties broken by wins, then id)
+   public ObservableList<TennisPlayer> getTopPlayers( int k, int minMatches ) {
+      return FXCollections.observableList(this.getLeaderboard(minMatches).getTop(k));
+   }
+   
+   // Desc.:   Gets the rank of a player by win percentage
+   // Input:   Key of the uid of the player and minimum number of matches played to be ranked
+   // Output:  Rank of the player (1 = best), or -1 if the player played too few matches. Throws an exception
+   //          if player doesn't exist in tree
+   public int getRank( PlayerKey key, int minMatches )
+      throws TennisDatabaseRuntimeException {
+      if (this.retrievePlayer(this, key) == null) { throw new TennisDatabaseRuntimeException("Error getting rank of player! Player does not exist."); }
+      return this.getLeaderboard(minMatches).getRank(key);
+   }
+   
+   // Desc.:   Iterates over the players born in a range of years
+   // Input:   First and last birth year, inclusive
+   // Output:  Lazy iterator of the players, sorted by birth year then id. Invalidated by changes to the players
+   public Iterator<TennisPlayer> getPlayersBornBetween( int fromYear, int toYear ) {
+      return this.getAttributes().bornBetween(fromYear, toYear);
+   }
+   
+   // Desc.:   Iterates over the players of a country born in a range of years
+   // Input:   Country (any case) and first and last birth year, inclusive
+   // Output:  Lazy iterator of the players, sorted by birth year then id. Invalidated by changes to the players
+   public Iterator<TennisPlayer> getPlayersFromCountry( String country, int fromYear, int toYear ) {
+      return this.getAttributes().fromCountry(country, fromYear, toYear);
+   }
+   
+   // Desc.:   Finds players whose full name or last name starts with a prefix
+   // Input:   Prefix (any case) and maximum number of players to return
+   // Output:  ObservableList of at most limit TennisPlayers, sorted by the matching name
+   public ObservableList<TennisPlayer> findPlayersByNamePrefix( String prefix, int limit ) {
+      return FXCollections.observableList(this.getAttributes().findByNamePrefix(prefix, limit));
+   }
+   
+   // Desc.:   Adds every node of a subtree to an index
+   // Input:   Index to fill and the root of the subtree to add
+   private void indexSubtree( TennisPlayerIndex idx, TennisPlayerNode pNode ) {
+      if (pNode != null) {
+         idx.put(pNode.getPlayer().getKey(), pNode);
+         this.indexSubtree(idx, pNode.getLeftChild());
+         this.indexSubtree(idx, pNode.getRightChild());
       }
    }
    
-   // Desc.:   Method for TennisPlayersContainer to insert a TennisPlayer
-   // Input:   TennisPlayerNode (representing the root to start) and the TennisPlayer to be inserted
-   // Output:  TennisPlayerNode that is to be the new root for the tree
-   private TennisPlayerNode insertPlayer( TennisPlayerNode node, TennisPlayer player ) {
+   // Desc.:   Method for TennisPlayersContainer to insert a TennisPlayerNode
+   // Input:   TennisPlayerNode (representing the root to start) and the new TennisPlayerNode to be inserted
+   // Output:  TennisPlayerNode that is to be the new root for the (rebalanced) tree
+   private TennisPlayerNode insertPlayer( TennisPlayerNode node, TennisPlayerNode newNode ) {
       if (node == null) {
-         node = new TennisPlayerNode(player, null, null);
-      } else if (player.compareTo(node.getPlayer()) < 0) {
-         node.setLeftChild(insertPlayer(node.getLeftChild(), player));
+         return newNode;
+      } else if (newNode.getPlayer().compareTo(node.getPlayer()) < 0) {
+         node.setLeftChild(insertPlayer(node.getLeftChild(), newNode));
       } else {
-         node.setRightChild(insertPlayer(node.getRightChild(), player));
+         node.setRightChild(insertPlayer(node.getRightChild(), newNode));
       }
-      return node;
+      return this.rebalance(node); // Restore AVL property on the way back up
    }
    
    // Desc.:   Wrapper method for insertion of TennisPlayer by outside classes
    // Input:   TennisPlayer to be inserted
-   public void insertPlayer ( TennisPlayer player ) {
-      if (this.isEmpty()) {
-         this.setRoot(insertPlayer(null, player));
-      } else {
-         insertPlayer(this.getRoot(), player);
+   // Output:  Throws an exception if player id is already in this container.
+   public void insertPlayer ( TennisPlayer player )
+      throws TennisDatabaseRuntimeException {
+      TennisPlayerIndex idx = this.getIndex();
+      if (idx.get(player.getKey()) != null) {
+         throw new TennisDatabaseRuntimeException("Error inserting new player! Player ID " + player.getId() + " already exists!");
       }
+      
+      TennisPlayerNode newNode = new TennisPlayerNode(player, null, null);
+      this.root = insertPlayer(this.root, newNode); // Root may change after rotations
+      idx.put(player.getKey(), newNode); // Keep indexes in sync with the tree
+      if (this.attributes != null) { this.attributes.add(player); }
+      for (TennisLeaderboard leaderboard : this.leaderboards.values()) { leaderboard.update(player); }
+   }
+   
+   // Desc.:   Builds a perfectly balanced tree from players sorted by id in O(n). Container must be empty
+   // Input:   Array of TennisPlayers sorted by id, without duplicate ids
+   // Output:  Throws an exception if the container is not empty
+   void bulkLoad( TennisPlayer[] sortedPlayers )
+      throws TennisDatabaseRuntimeException {
+      if (!this.isEmpty()) { throw new TennisDatabaseRuntimeException("Error bulk loading players! Tennis Player's Container is not empty!"); }
+      
+      TennisPlayerIndex idx = new TennisPlayerIndex();
+      this.root = this.buildBalanced(sortedPlayers, 0, sortedPlayers.length - 1, idx);
+      this.index = idx;
+      this.attributes = null; // Built when first used
+      this.leaderboards.clear();
+   }
+   
+   // Desc.:   Builds a balanced subtree from a sorted range of players, middle player becoming the root
+   // Input:   Sorted players, inclusive range bounds, and the index to register the new nodes in
+   // Output:  Root of the subtree. Null if the range is empty
+   private TennisPlayerNode buildBalanced( TennisPlayer[] players, int lo, int hi, TennisPlayerIndex idx ) {
+      if (lo > hi) { return null; }
+      int mid = (lo + hi) >>> 1;
+      TennisPlayerNode left = this.buildBalanced(players, lo, mid - 1, idx);
+      TennisPlayerNode right = this.buildBalanced(players, mid + 1, hi, idx);
+      TennisPlayerNode node = new TennisPlayerNode(players[mid], left, right); // Height computed from children
+      idx.put(players[mid].getKey(), node);
+      return node;
    }
    
    // Desc.:   Method to update items in an existing node within the tree
    // Input:   All the data necessary to update the player
-   public void updatePlayer (String id, String firstName, String lastName, int year, String country)
+   public void updatePlayer (PlayerKey key, String firstName, String lastName, int year, String country)
       throws TennisDatabaseRuntimeException {
-      TennisPlayerNode pNode = this.retrievePlayer(this, id);
+      TennisPlayerNode pNode = this.retrievePlayer(this, key);
       if (pNode == null) { throw new TennisDatabaseRuntimeException("Error updating player! Player does not exist!"); }
       else {
          TennisPlayer p = pNode.getPlayer();
+         if (this.attributes != null) { this.attributes.remove(p); } // Indexed under the old birth year, country and names
          p.setFirstName(firstName);
          p.setLastName(lastName);
          p.setYear(year);
          p.setCountry(country);
+         if (this.attributes != null) { this.attributes.add(p); }
       }
    }
    
-   // Desc.:   Method to remove player node matching the passed uid String
-   // Input:   UID of TennisPlayer to be removed
-   public void deletePlayer( String id )
+   // Desc.:   Method to remove player node matching the passed uid key
+   // Input:   Key of the UID of TennisPlayer to be removed
+   public void deletePlayer( PlayerKey key )
       throws TennisDatabaseRuntimeException {  
-      this.setRoot(this.deletePlayer(this.getRoot(), id));
+      TennisPlayerIndex idx = this.getIndex();
+      this.root = this.deletePlayer(this.getRoot(), key); // Throws if player doesn't exist
+      TennisPlayerNode removed = idx.remove(key); // Keep indexes in sync with the tree
+      if (this.attributes != null) { this.attributes.remove(removed.getPlayer()); }
+      for (TennisLeaderboard leaderboard : this.leaderboards.values()) { leaderboard.remove(removed.getPlayer()); }
    }
    
    // Desc.:   Method for TennisPlayersContainer to remove a TennisPlayer
-   // Input:   Root node for the tree and the id of the player to be removed
-   // Output:  New root for the tree
-   private TennisPlayerNode deletePlayer( TennisPlayerNode rootNode, String id )
+   // Input:   Root node for the tree and the key of the player to be removed
+   // Output:  New root for the (rebalanced) tree
+   private TennisPlayerNode deletePlayer( TennisPlayerNode rootNode, PlayerKey key )
       throws TennisDatabaseRuntimeException {
       if (rootNode == null) {
          throw new TennisDatabaseRuntimeException("Error deleting player! Player not found!");
       } else {
-         int compare = id.compareTo(rootNode.getPlayer().getId());
+         int compare = key.compareTo(rootNode.getPlayer().getKey());
          if (compare == 0) {
             TennisPlayerNode newRoot = this.deletePlayerNode(rootNode);
             return newRoot;
          } else if (compare < 0) {
-            TennisPlayerNode newLeft = this.deletePlayer(rootNode.getLeftChild(), id);
+            TennisPlayerNode newLeft = this.deletePlayer(rootNode.getLeftChild(), key);
             rootNode.setLeftChild(newLeft);
-            return rootNode;
+            return this.rebalance(rootNode);
          } else {
-            TennisPlayerNode newRight = this.deletePlayer(rootNode.getRightChild(), id);
+            TennisPlayerNode newRight = this.deletePlayer(rootNode.getRightChild(), key);
             rootNode.setRightChild(newRight);
-            return rootNode;
+            return this.rebalance(rootNode);
          }
       }
    }
    
    // Desc.:   Method for TennisPlayersContainer to remove a TennisPlayerNode
    // Input:   Node of the tennis player to be deleted
-   // Output:  TennisPlayerNode
+   // Output:  TennisPlayerNode that replaces the deleted node (already rebalanced)
    private TennisPlayerNode deletePlayerNode( TennisPlayerNode pNode ) {
       if (pNode.getLeftChild() == null) {
          if (pNode.getRightChild() == null) { return null; } // Leaf case
@@ -277,7 +416,7 @@ public class TennisPlayersContainer implements TennisPlayersContainerInterface {
          replacementNode.setLeftChild(pNode.getLeftChild()); // Point replacement node to left subtree of node to be deleted
          pNode = replacementNode; // Replace the node
          pNode.setRightChild(replacementRightChild); // Link replacement right subtree
-         return pNode;
+         return this.rebalance(pNode);
       }
    }
    
@@ -290,14 +429,84 @@ public class TennisPlayersContainer implements TennisPlayersContainerInterface {
    }
    
    // Desc.:   Method for removing the parent's pointer to the left-most node in the tree
-   // Output:  TennisPlayerNode that is to be the right child replacement
+   // Output:  TennisPlayerNode that is to be the right child replacement (already rebalanced)
    private TennisPlayerNode deleteLeftMost( TennisPlayerNode pNode ) {
       if (pNode.getLeftChild() == null) { return pNode.getRightChild(); }
       else {
          TennisPlayerNode replacementLeftChild = this.deleteLeftMost(pNode.getLeftChild());
          pNode.setLeftChild(replacementLeftChild);
-         return pNode;
+         return this.rebalance(pNode);
+      }
+   }
+   
+   /* AVL Balancing Operations */
+   // Desc.:   Gets the height of a (possibly empty) subtree
+   // Input:   Root node of the subtree
+   // Output:  Height of the subtree. Empty subtree has height 0
+   private int height( TennisPlayerNode pNode ) {
+      return (pNode == null) ? 0 : pNode.getHeight();
+   }
+   
+   // Desc.:   Gets the number of nodes in a (possibly empty) subtree
+   // Input:   Root node of the subtree
+   // Output:  Size of the subtree. Empty subtree has size 0
+   private int size( TennisPlayerNode pNode ) {
+      return (pNode == null) ? 0 : pNode.getSize();
+   }
+   
+   // Desc.:   Recomputes the height and size of a node from those of its children
+   // Input:   Node whose height and size should be refreshed
+   private void updateHeightAndSize( TennisPlayerNode pNode ) {
+      pNode.setHeight(1 + Math.max(this.height(pNode.getLeftChild()), this.height(pNode.getRightChild())));
+      pNode.setSize(1 + this.size(pNode.getLeftChild()) + this.size(pNode.getRightChild()));
+   }
+   
+   // Desc.:   Rotates the subtree rooted at pNode to the right
+   // Input:   Root of the subtree. Must have a left child
+   // Output:  New root of the subtree (the former left child)
+   private TennisPlayerNode rotateRight( TennisPlayerNode pNode ) {
+      TennisPlayerNode newRoot = pNode.getLeftChild();
+      pNode.setLeftChild(newRoot.getRightChild());
+      newRoot.setRightChild(pNode);
+      this.updateHeightAndSize(pNode); // Old root is now the child. Update it first
+      this.updateHeightAndSize(newRoot);
+      return newRoot;
+   }
+   
+   // Desc.:   Rotates the subtree rooted at pNode to the left
+   // Input:   Root of the subtree. Must have a right child
+   // Output:  New root of the subtree (the former right child)
+   private TennisPlayerNode rotateLeft( TennisPlayerNode pNode ) {
+      TennisPlayerNode newRoot = pNode.getRightChild();
+      pNode.setRightChild(newRoot.getLeftChild());
+      newRoot.setLeftChild(pNode);
+      this.updateHeightAndSize(pNode); // Old root is now the child. Update it first
+      this.updateHeightAndSize(newRoot);
+      return newRoot;
+   }
+   
+   // Desc.:   Restores the AVL property (children heights differ by at most 1) at the passed node.
+   //          Children of the node are expected to already be balanced.
+   // Input:   Root of the subtree to rebalance
+   // Output:  New root of the rebalanced subtree
+   private TennisPlayerNode rebalance( TennisPlayerNode pNode ) {
+      this.updateHeightAndSize(pNode);
+      int balance = this.height(pNode.getLeftChild()) - this.height(pNode.getRightChild());
+      
+      if (balance > 1) { // Left heavy
+         TennisPlayerNode left = pNode.getLeftChild();
+         if (this.height(left.getLeftChild()) < this.height(left.getRightChild())) {
+            pNode.setLeftChild(this.rotateLeft(left)); // Left-Right case
+         }
+         return this.rotateRight(pNode);
+      } else if (balance < -1) { // Right heavy
+         TennisPlayerNode right = pNode.getRightChild();
+         if (this.height(right.getRightChild()) < this.height(right.getLeftChild())) {
+            pNode.setRightChild(this.rotateRight(right)); // Right-Left case
+         }
+         return this.rotateLeft(pNode);
       }
+      return pNode; // Already balanced
    }
    
    // Desc.:   Insert a TennisMatch object (reference) into this container.
@@ -306,12 +515,16 @@ public class TennisPlayersContainer implements TennisPlayersContainerInterface {
    public void insertMatch ( TennisMatch m )
       throws TennisDatabaseRuntimeException { 
       // Search for the match players in this list
-      TennisPlayerNode p1 = this.retrievePlayer(this, m.getPlayer1().getId());
-      TennisPlayerNode p2 = this.retrievePlayer(this, m.getPlayer2().getId());
+      TennisPlayerNode p1 = this.retrievePlayer(this, m.getPlayer1().getKey());
+      TennisPlayerNode p2 = this.retrievePlayer(this, m.getPlayer2().getKey());
       
       // Insert match in each player node
       p1.insertMatch(m);
       p2.insertMatch(m);
+      for (TennisLeaderboard leaderboard : this.leaderboards.values()) { // Move the players to their new ranks
+         leaderboard.update(p1.getPlayer());
+         leaderboard.update(p2.getPlayer());
+      }
    }
    
    // Desc.:   Internal method to prints all players
@@ -342,9 +555,17 @@ public class TennisPlayersContainer implements TennisPlayersContainerInterface {
    // Output:  Throws an exception if the tennis player (id) does not exits, or if there are no tennis matches.
    public void printMatchesOfPlayer( String playerId )
       throws TennisDatabaseRuntimeException {
-         TennisPlayerNode pNode = this.retrievePlayer(this, playerId);
+         this.printMatchesOfPlayer(PlayerKey.of(playerId));
+   } 
+   
+   // Desc.:   Prints all tennis matches of input tennis player (key).
+   // Input:   The key of the id of the tennis player.
+   // Output:  Throws an exception if the tennis player does not exits, or if there are no tennis matches.
+   public void printMatchesOfPlayer( PlayerKey key )
+      throws TennisDatabaseRuntimeException {
+         TennisPlayerNode pNode = this.retrievePlayer(this, key);
          if (pNode == null) {
-            throw new TennisDatabaseRuntimeException("Error printing matches for player! Player with ID " + playerId.toUpperCase() + " does not exist.");
+            throw new TennisDatabaseRuntimeException("Error printing matches for player! Player with ID " + key.getId() + " does not exist.");
          }
          pNode.printMatches();
    } 
@@ -354,7 +575,7 @@ public class TennisPlayersContainer implements TennisPlayersContainerInterface {
    public ObservableList<TennisPlayer> getPlayersList() {
       TennisPlayersContainerIterator tpci = new TennisPlayersContainerIterator(this);
       tpci.setInorder();
-      LinkedList<TennisPlayer> playersList = new LinkedList<TennisPlayer>();
+      ArrayList<TennisPlayer> playersList = new ArrayList<TennisPlayer>(this.size());
       while (tpci.hasNext()) {
          TennisPlayer p = tpci.next().getPlayer();
          playersList.add(p);
@@ -362,35 +583,133 @@ public class TennisPlayersContainer implements TennisPlayersContainerInterface {
       return FXCollections.observableList(playersList);
    }
    
+   // Desc.:   Gets the number of players in this container
+   // Output:  Number of players, read from the subtree size of the root
+   public int size() { return this.size(this.root); }
+   
+   // Desc.:   Selects the player at a position of the inorder (id) sequence, guided by the subtree sizes
+   // Input:   Position of the player, 0 being the first id
+   // Output:  TennisPlayer object (reference). Throws an exception if the position is out of range
+   public TennisPlayer select( int i )
+      throws TennisDatabaseRuntimeException {
+      if (i < 0 || i >= this.size()) { throw new TennisDatabaseRuntimeException("Error selecting player! Position " + i + " is out of range."); }
+      TennisPlayerNode pNode = this.root;
+      while (true) {
+         int leftSize = this.size(pNode.getLeftChild());
+         if (i < leftSize) {
+            pNode = pNode.getLeftChild();
+         } else if (i > leftSize) {
+            i -= leftSize + 1; // Skip the left subtree and this node
+            pNode = pNode.getRightChild();
+         } else {
+            return pNode.getPlayer();
+         }
+      }
+   }
+   
+   // Desc.:   Gets the position of an id in the inorder (id) sequence, guided by the subtree sizes
+   // Input:   Key of the uid
+   // Output:  Number of players with a smaller id. This is the position of the player if it exists, and the
+   //          position it would be inserted at otherwise
+   public int rank( PlayerKey key ) {
+      int rank = 0;
+      TennisPlayerNode pNode = this.root;
+      while (pNode != null) {
+         int compare = key.compareTo(pNode.getPlayer().getKey());
+         if (compare < 0) {
+            pNode = pNode.getLeftChild();
+         } else if (compare > 0) {
+            rank += this.size(pNode.getLeftChild()) + 1;
+            pNode = pNode.getRightChild();
+         } else {
+            return rank + this.size(pNode.getLeftChild());
+         }
+      }
+      return rank;
+   }
+   
+   // Desc.:   Creates an ObservableList of one page of the players sorted by id, without visiting the players
+   //          before the page. Descends to the first player of the page, then walks inorder
+   // Input:   Position of the first player of the page and maximum number of players
+   // Output:  ObservableList of at most limit TennisPlayers. Empty if the offset is past the last player. Throws an
+   //          exception if the offset or limit is negative
+   public ObservableList<TennisPlayer> getPlayersPage( int offset, int limit )
+      throws TennisDatabaseRuntimeException {
+      if (offset < 0 || limit < 0) { throw new TennisDatabaseRuntimeException("Error getting page of players! Offset and limit can't be negative."); }
+      ArrayList<TennisPlayer> page = new ArrayList<TennisPlayer>(Math.max(0, Math.min(limit, this.size() - offset)));
+      ArrayDeque<TennisPlayerNode> pending = new ArrayDeque<TennisPlayerNode>(); // Ancestors whose turn comes after their left subtree
+      
+      // Descend to the first player of the page, keeping the nodes still to visit on the stack
+      TennisPlayerNode pNode = this.root;
+      int i = offset;
+      while (pNode != null) {
+         int leftSize = this.size(pNode.getLeftChild());
+         if (i < leftSize) {
+            pending.push(pNode);
+            pNode = pNode.getLeftChild();
+         } else if (i > leftSize) {
+            i -= leftSize + 1;
+            pNode = pNode.getRightChild();
+         } else {
+            pending.push(pNode);
+            break;
+         }
+      }
+      
+      // Inorder walk from the first player of the page
+      while (page.size() < limit && !pending.isEmpty()) {
+         pNode = pending.pop();
+         page.add(pNode.getPlayer());
+         for (TennisPlayerNode next = pNode.getRightChild(); next != null; next = next.getLeftChild()) { pending.push(next); }
+      }
+      return FXCollections.observableList(page);
+   }
+   
    // Desc.:   Creates an ObservableList of TennisMatch objects of a player
-   // Input:   String representing the uid of the player who's matches should be printed
+   // Input:   Key of the uid of the player who's matches should be printed
    // Output:  ObservableList of TennisMatch objects. Throws an exception if player doesn't exist in tree
-   public ObservableList<TennisMatch> getMatchesOfPlayer(String id)
+   public ObservableList<TennisMatch> getMatchesOfPlayer(PlayerKey key)
       throws TennisDatabaseRuntimeException {
-      TennisPlayerNode pNode = this.retrievePlayer(this, id);
+      TennisPlayerNode pNode = this.retrievePlayer(this, key);
       if (pNode == null) { throw new TennisDatabaseRuntimeException("Error getting matches of player! Player does not exist."); }
       
       return pNode.getMatches();
    }
    
+   // Desc.:   Creates an ObservableList of the matches of a player played between two dates
+   // Input:   Key of the uid of the player and the first and last date (packed as YYYYMMDD), inclusive
+   // Output:  ObservableList of TennisMatch objects, newest first. Throws an exception if player doesn't exist in tree
+   public ObservableList<TennisMatch> getMatchesOfPlayerBetween(PlayerKey key, int from, int to)
+      throws TennisDatabaseRuntimeException {
+      TennisPlayerNode pNode = this.retrievePlayer(this, key);
+      if (pNode == null) { throw new TennisDatabaseRuntimeException("Error getting matches of player! Player does not exist."); }
+      
+      return pNode.getMatchesBetween(from, to);
+   }
+   
    // Desc.:   Writes all tennis player objects to text file in preorder to preserve underlying structure for reimportation
-   // Input:   Pre-configured PrintWrite object for writing to the text file
+   // Input:   Database writer streaming to the text file
    // Output:  All tennis player information formatted and exported to a text file
-   public void treeToFile(PrintWriter writer) {
+   void treeToFile(TennisDatabaseWriter writer) throws IOException {
       TennisPlayersContainerIterator iter = new TennisPlayersContainerIterator(this);
       iter.setPreorder();
       
       while(iter.hasNext()) { // Binary search tree traversal using iterator.
-         TennisPlayerNode pNode = iter.next();
-         TennisPlayer p = pNode.getPlayer();
-         String uid = p.getId();
-         String first = p.getFirstName();
-         String last = p.getLastName();
-         String year = String.format("%04d", p.getBirthYear());
-         String country = p.getCountry();
+         TennisPlayer p = iter.next().getPlayer();
          
-         writer.println("PLAYER/" + uid + "/" + first + "/" + last + "/" + year + "/" + country);
+         // PLAYER/id/first/last/year/country
+         writer.write("PLAYER/");
+         writer.write(p.getId());
+         writer.write('/');
+         writer.write(p.getFirstName());
+         writer.write('/');
+         writer.write(p.getLastName());
+         writer.write('/');
+         writer.writeInt(p.getBirthYear(), 4);
+         writer.write('/');
+         writer.write(p.getCountry());
+         writer.endRecord();
       }
    }
 }
-// © 2018 Jeremy Maxey-Vesperman
\ No newline at end of file
+// © 2018 Jeremy Maxey-Vesperman
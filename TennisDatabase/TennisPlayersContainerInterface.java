@@ -30,4 +30,4 @@ interface TennisPlayersContainerInterface {
    // Output: Throws an exception if the tennis player (id) does not exits, or if there are no tennis matches.
    public void printMatchesOfPlayer( String playerId ) throws TennisDatabaseRuntimeException;
 }
-// © 2018 Giuseppe Turini
\ No newline at end of file
+// © 2018 Giuseppe Turini
@@ -3,37 +3,56 @@
  *    Interface:  java.util.Iterator<TennisPlayerNode>
  *    Package:    TennisDatabase
  *    Purpose:    Provides an iterator to traverse the TennisPlayersContainer binary search tree.
+ *                Traversal is lazy: nodes are visited as next() is called, using a stack of at most O(height) nodes.
  *    Developer:  Jeremy Maxey-Vesperman
- *    Modified:   06/08/2018
+ *    Modified:   10/18/2026
  */
 
 package TennisDatabase;
 
-import java.util.LinkedList;
+import java.util.ArrayDeque;
 
 public class TennisPlayersContainerIterator implements java.util.Iterator< TennisPlayerNode > {
+   private static final int NONE = 0, PREORDER = 1, INORDER = 2, POSTORDER = 3; // Traversal types
+   
    private TennisPlayersContainer binTree; // the binary tree to iterate through
    private TennisPlayerNode currNode; // current node in traversal of tree
-   private LinkedList< TennisPlayerNode > queue; // for traversal
+   private ArrayDeque< TennisPlayerNode > stack; // pending nodes of the traversal
+   private int traversal; // selected traversal type
    
    // Constructor - Default initializes data structures for the interator
    public TennisPlayersContainerIterator( TennisPlayersContainer tpc ) {
       binTree = tpc;
       currNode = null;
       
-      // Empty queue = no traversal type selected, or end of traversal
-      queue = new LinkedList< TennisPlayerNode > ();
-      
+      // Empty stack = no traversal type selected, or end of traversal
+      stack = new ArrayDeque< TennisPlayerNode > ();
+      traversal = NONE;
    }
    
-   // Desc.:   Function provides the caller the ability to check if the queue has a next item to get
-   // Output:  Boolean indicating whether the queue has a next item
-   public boolean hasNext() { return !queue.isEmpty(); }
+   // Desc.:   Function provides the caller the ability to check if the traversal has a next item to get
+   // Output:  Boolean indicating whether the traversal has a next item
+   public boolean hasNext() { return !stack.isEmpty(); }
    
-   // Desc.:   Retrieves the next TennisPlayerNode from queue
+   // Desc.:   Retrieves the next TennisPlayerNode of the traversal
    // Output:  Returns next TennisPlayerNode object. Throws exception if there is no next
    public TennisPlayerNode next() throws java.util.NoSuchElementException {
-      currNode = queue.remove();
+      currNode = stack.pop(); // Throws NoSuchElementException if traversal is over
+      
+      switch (traversal) {
+         case PREORDER: // Visit node, then left subtree, then right subtree
+            if (currNode.getRightChild() != null) { stack.push(currNode.getRightChild()); }
+            if (currNode.getLeftChild() != null) { stack.push(currNode.getLeftChild()); }
+            break;
+         case INORDER: // Left subtree was already visited. Queue up the right subtree
+            pushLeftPath(currNode.getRightChild());
+            break;
+         case POSTORDER: // If we just finished a left subtree, the parent's right subtree comes next
+            if (!stack.isEmpty() && stack.peek().getLeftChild() == currNode) {
+               pushFirstLeafPath(stack.peek().getRightChild());
+            }
+            break;
+      }
       return currNode;
    }
    
@@ -45,51 +64,44 @@ public class TennisPlayersContainerIterator implements java.util.Iterator< Tenni
    
    /* Traversal methods */
    // Preorder
-   // Desc.:   Sets the traversal method of the binary search tree to preorder and fills the queue appropriately
+   // Desc.:   Sets the traversal method of the binary search tree to preorder and restarts the traversal
    public void setPreorder() {
-      queue.clear();
-      preorder(binTree.getRoot());
-   }
-   
-   // Desc.:   Method traverses the bst and creates a preorder queue of TennisPlayerNodes
-   public void preorder( TennisPlayerNode tpNode ) {
-      if (tpNode != null) {
-         queue.add(tpNode);
-         preorder(tpNode.getLeftChild());
-         preorder(tpNode.getRightChild());
-      }
+      stack.clear();
+      traversal = PREORDER;
+      stack.push(binTree.getRoot());
    }
    
    // Inorder
-   // Desc.:   Sets the traversal method of the binary search tree to inorder and fills the queue appropriately
+   // Desc.:   Sets the traversal method of the binary search tree to inorder and restarts the traversal
    public void setInorder() {
-      queue.clear();
-      inorder(binTree.getRoot());
+      stack.clear();
+      traversal = INORDER;
+      pushLeftPath(binTree.getRoot());
    }
    
-   // Desc.:   Method traverses the bst and creates an inorder queue of TennisPlayerNodes
-   public void inorder( TennisPlayerNode tpNode ) {
-      if (tpNode != null) {
-         inorder(tpNode.getLeftChild());
-         queue.add(tpNode);
-         inorder(tpNode.getRightChild());
+   // Desc.:   Pushes a node and all of its left descendants. The last pushed node is the next inorder node
+   private void pushLeftPath( TennisPlayerNode tpNode ) {
+      while (tpNode != null) {
+         stack.push(tpNode);
+         tpNode = tpNode.getLeftChild();
       }
    }
    
    // Postorder
-   // Desc.:   Sets the traversal method of the binary search tree to postorder and fills the queue appropriately
+   // Desc.:   Sets the traversal method of the binary search tree to postorder and restarts the traversal
    public void setPostorder() {
-      queue.clear();
-      postorder(binTree.getRoot());
+      stack.clear();
+      traversal = POSTORDER;
+      pushFirstLeafPath(binTree.getRoot());
    }
    
-   // Desc.:   Method traverses the bst and creates a postorder queue of TennisPlayerNodes
-   public void postorder( TennisPlayerNode tpNode ) {
-      if (tpNode != null) {
-         postorder(tpNode.getLeftChild());
-         postorder(tpNode.getRightChild());
-         queue.add(tpNode);
+   // Desc.:   Pushes the path from a node down to the first leaf visited in postorder (preferring left children).
+   //          The last pushed node is the next postorder node
+   private void pushFirstLeafPath( TennisPlayerNode tpNode ) {
+      while (tpNode != null) {
+         stack.push(tpNode);
+         tpNode = (tpNode.getLeftChild() != null) ? tpNode.getLeftChild() : tpNode.getRightChild();
       }
    }
 }
-// © 2018 Jeremy Maxey-Vesperman
\ No newline at end of file
+// © 2018 Jeremy Maxey-Vesperman
@@ -0,0 +1,97 @@
+/*
+ *    Class Name: TennisStringDictionary
+ *    Interface:  N/A
+ *    Package:    TennisDatabase
+ *    Purpose:    Thread-safe dictionary assigning a small int code to every distinct string. Values that repeat
+ *                across many records (tournaments, countries) are stored once and every record shares the same
+ *                instance, so equal values can be compared by reference or by code. Each database owns its
+ *                dictionaries and replaces them with its containers.
+ *    Developer:  agent
+ *    Modified:   10/18/2026
+ */
+
+package TennisDatabase;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+class TennisStringDictionary {
+   private String name;
+   private ConcurrentHashMap<String, Integer> codes = new ConcurrentHashMap<String, Integer>(); // Values (and their raw spellings) -> code
+   private volatile String[] values = new String[64]; // Values by code. Replaced (never modified in place) when grown
+   private int size;
+   private LongAdder lookups = new LongAdder(); // Calls to intern / canonicalize
+   private LongAdder hits = new LongAdder(); // Lookups that found an existing value
+
+   // Constructor - creates an empty dictionary
+   TennisStringDictionary( String name ) { this.name = name; }
+
+   // Desc.:   Gets the code of a string, adding the string if it is new
+   // Input:   String value
+   // Output:  Code of the value. Equal strings always get the same code
+   public int intern( String value ) {
+      this.lookups.increment();
+      Integer code = this.codes.get(value);
+      if (code != null) {
+         this.hits.increment();
+         return code;
+      }
+
+      synchronized (this) {
+         return this.add(value, value);
+      }
+   }
+
+   // Desc.:   Gets the shared, upper-case instance of a string. The raw value is looked up first, so a spelling
+   //          that was seen before is resolved without converting it. Only a miss is converted to upper case,
+   //          and the raw spelling is then remembered as an alias of the upper-case value
+   // Input:   String value (any case)
+   // Output:  Shared upper-case instance of the value
+   public String canonicalize( String value ) {
+      this.lookups.increment();
+      Integer code = this.codes.get(value);
+      if (code != null) {
+         this.hits.increment();
+         return this.get(code);
+      }
+
+      String upper = value.toUpperCase();
+      synchronized (this) {
+         return this.get(this.add(upper, value));
+      }
+   }
+
+   // Desc.:   Adds a value unless it is known, and maps a spelling of it to its code. Caller holds the lock
+   // Input:   Upper-case value and the spelling that was looked up (may be the same string)
+   // Output:  Code of the value
+   private int add( String value, String spelling ) {
+      Integer code = this.codes.get(value);
+      if (code != null) { // Added by another thread meanwhile, or known under another spelling
+         this.hits.increment();
+      } else {
+         String[] vals = this.values;
+         if (this.size == vals.length) { vals = java.util.Arrays.copyOf(vals, vals.length * 2); }
+         vals[this.size] = value;
+         this.values = vals; // Publish before the code becomes visible
+         code = this.size++;
+         this.codes.put(value, code);
+      }
+      if (!spelling.equals(value)) { this.codes.putIfAbsent(spelling, code); }
+      return code;
+   }
+
+   // Desc.:   Gets the string of a code
+   // Input:   Code returned by intern
+   // Output:  The (shared) string instance
+   public String get( int code ) { return this.values[code]; }
+
+   // Desc.:   Gets the number of distinct strings
+   public synchronized int size() { return this.size; }
+
+   // Desc.:   Gets the size and hit rate of this dictionary
+   // Output:  TennisDictionaryStats object
+   public TennisDictionaryStats getStats() {
+      return new TennisDictionaryStats(this.name, this.size(), this.lookups.sum(), this.hits.sum());
+   }
+}
+// © 2026 agent
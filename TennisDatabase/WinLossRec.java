@@ -4,7 +4,7 @@
  *    Package:    TennisDatabase
  *    Purpose:    Provides a container to store win loss records for tennis players.
  *    Developer:  Jeremy Maxey-Vesperman
- *    Modified:   05/04/2018
+ *    Modified:   10/18/2026
  */
 
 package TennisDatabase;
@@ -14,6 +14,12 @@ class WinLossRec {
    
    public WinLossRec() { }
    
+   // Constructor - restores a saved record
+   WinLossRec(int win, int loss) {
+      this.win = win;
+      this.loss = loss;
+   }
+   
    /* Setters */
    public void incWin() { this.win++; }
    public void incLoss() { this.loss++; }
@@ -29,4 +35,4 @@ class WinLossRec {
    // Output:  Formatted Win/Loss record string
    public String toString() { return (win + "/" + loss + " (WIN/LOSS)"); }
 }
-// © 2018 Jeremy Maxey-Vesperman
\ No newline at end of file
+// © 2018 Jeremy Maxey-Vesperman